@@ -0,0 +1,94 @@
+package app;
+
+import java.util.SplittableRandom;
+import logika.Logika2048;
+import logika.PaketIgara;
+
+/**
+ * Klasa BenchmarkPaketa poredi propusnost paketa igara ({@link PaketIgara}) sa istim brojem
+ * zasebnih objekata `Logika2048`. Obje strane igraju nasumične poteze, dodaju nove pločice
+ * nakon promjene i počinju novu igru kada nema mogućih poteza.
+ *
+ * Pokretanje: {@code java app.BenchmarkPaketa [veličina] [broj igara] [broj koraka]}
+ * (podrazumijevano 4, 4096 i 200).
+ */
+public class BenchmarkPaketa {
+
+    /** Broj ponavljanja za zagrijavanje JIT kompajlera. */
+    private static final int ZAGRIJAVANJE = 3;
+
+    /** Broj mjerenih ponavljanja. */
+    private static final int PONAVLJANJA = 5;
+
+    /**
+     * Glavna metoda koja pokreće mjerenje.
+     *
+     * @param args Veličina ploče, broj igara i broj koraka po ponavljanju.
+     */
+    public static void main(String[] args) {
+        int velicina = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int brojIgara = args.length > 1 ? Integer.parseInt(args[1]) : 4096;
+        int koraka = args.length > 2 ? Integer.parseInt(args[2]) : 200;
+
+        Logika2048[] igre = new Logika2048[brojIgara];
+        for (int i = 0; i < brojIgara; i++) {
+            igre[i] = new Logika2048(velicina, false);
+        }
+        PaketIgara paket = new PaketIgara(velicina, brojIgara, 1);
+        for (int i = 0; i < brojIgara; i++) {
+            paket.resetuj(i);
+        }
+
+        System.out.printf("Ploča %dx%d, %d igara, %d koraka%n", velicina, velicina, brojIgara, koraka);
+        double objekti = 0;
+        double paketom = 0;
+        for (int i = 0; i < ZAGRIJAVANJE + PONAVLJANJA; i++) {
+            double o = izmjeriObjekte(igre, koraka, new SplittableRandom(i));
+            double p = izmjeriPaket(paket, koraka, new SplittableRandom(i));
+            if (i >= ZAGRIJAVANJE) {
+                objekti += o;
+                paketom += p;
+            }
+        }
+        objekti /= PONAVLJANJA;
+        paketom /= PONAVLJANJA;
+        System.out.printf("  Logika2048 objekti %12.0f poteza/s%n", objekti);
+        System.out.printf("  PaketIgara         %12.0f poteza/s  ubrzanje %5.2fx%n", paketom, paketom / objekti);
+    }
+
+    /**
+     * @return Broj poteza u sekundi za zasebne objekte.
+     */
+    private static double izmjeriObjekte(Logika2048[] igre, int koraka, SplittableRandom random) {
+        long start = System.nanoTime();
+        for (int k = 0; k < koraka; k++) {
+            for (Logika2048 igra : igre) {
+                if (igra.legalMoves() == 0) igra.reset();
+                igra.move(random.nextInt(4));
+            }
+        }
+        return (double) koraka * igre.length / ((System.nanoTime() - start) / 1e9);
+    }
+
+    /**
+     * @return Broj poteza u sekundi za paket.
+     */
+    private static double izmjeriPaket(PaketIgara paket, int koraka, SplittableRandom random) {
+        int n = paket.getBrojIgara();
+        int[] smjerovi = new int[n];
+        boolean[] promjene = new boolean[n];
+        int[] prirasti = new int[n];
+        int[] maske = new int[n];
+        long start = System.nanoTime();
+        for (int k = 0; k < koraka; k++) {
+            paket.moguciPotezi(maske);
+            for (int i = 0; i < n; i++) {
+                if (maske[i] == 0) paket.resetuj(i);
+                smjerovi[i] = random.nextInt(4);
+            }
+            paket.potez(smjerovi, promjene, prirasti);
+            paket.dodajPlocice(promjene);
+        }
+        return (double) koraka * n / ((System.nanoTime() - start) / 1e9);
+    }
+}
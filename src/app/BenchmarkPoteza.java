@@ -0,0 +1,97 @@
+package app;
+
+import java.util.Random;
+import logika.Logika2048;
+
+/**
+ * Klasa BenchmarkPoteza mjeri trajanje poteza igre 2048 na velikim pločama.
+ * Za svaku zadanu veličinu ploče mjeri serijsko i paralelno izvršavanje poteza
+ * u sva četiri smjera i ispisuje prosječno vrijeme i ubrzanje. Za vertikalne poteze
+ * dodatno poredi prolaz kolonu po kolonu sa prolazom po blokovima susjednih kolona.
+ *
+ * Pokretanje: {@code java app.BenchmarkPoteza [veličina ...]} (npr. 64 256 1024).
+ */
+public class BenchmarkPoteza {
+
+    /** Broj mjerenih poteza po smjeru. */
+    private static final int PONAVLJANJA = 20;
+
+    /** Broj poteza za zagrijavanje JIT kompajlera. */
+    private static final int ZAGRIJAVANJE = 10;
+
+    /** Smjerovi u ispisu, redom kao konstante u `Logika2048`. */
+    private static final String[] SMJEROVI = {"gore", "lijevo", "dolje", "desno"};
+
+    /**
+     * Glavna metoda koja pokreće mjerenja za zadane veličine ploče.
+     *
+     * @param args Veličine ploče (podrazumijevano 64, 256, 512 i 1024).
+     */
+    public static void main(String[] args) {
+        int[] velicine = args.length == 0 ? new int[] {64, 256, 512, 1024} : new int[args.length];
+        for (int i = 0; i < args.length; i++) {
+            velicine[i] = Integer.parseInt(args[i]);
+        }
+        int pocetniPrag = Logika2048.getParallelThreshold();
+        int pocetniPragBlokova = Logika2048.getBlockedThreshold();
+        for (int velicina : velicine) {
+            int[][] pocetna = nasumicnaPloca(velicina, new Random(velicina));
+            Logika2048 igra = new Logika2048(velicina);
+            igra.setVerbose(false);
+
+            System.out.printf("Ploča %dx%d%n", velicina, velicina);
+            for (int smjer = Logika2048.UP; smjer <= Logika2048.RIGHT; smjer++) {
+                Logika2048.setParallelThreshold(Integer.MAX_VALUE);
+                double serijski = izmjeri(igra, pocetna, smjer);
+                Logika2048.setParallelThreshold(1);
+                double paralelni = izmjeri(igra, pocetna, smjer);
+                System.out.printf("  %-7s serijski %8.3f ms  paralelni %8.3f ms  ubrzanje %5.2fx%n",
+                        SMJEROVI[smjer], serijski, paralelni, serijski / paralelni);
+            }
+
+            // Vertikalni potezi: kolonu po kolonu naspram blokova susjednih kolona (serijski)
+            Logika2048.setParallelThreshold(Integer.MAX_VALUE);
+            for (int smjer : new int[] {Logika2048.UP, Logika2048.DOWN}) {
+                Logika2048.setBlockedThreshold(Integer.MAX_VALUE);
+                double poKolonama = izmjeri(igra, pocetna, smjer);
+                Logika2048.setBlockedThreshold(1);
+                double poBlokovima = izmjeri(igra, pocetna, smjer);
+                System.out.printf("  %-7s po kolonama %8.3f ms  po blokovima %8.3f ms  ubrzanje %5.2fx%n",
+                        SMJEROVI[smjer], poKolonama, poBlokovima, poKolonama / poBlokovima);
+            }
+            Logika2048.setBlockedThreshold(pocetniPragBlokova);
+        }
+        Logika2048.setParallelThreshold(pocetniPrag);
+    }
+
+    /**
+     * Mjeri prosječno trajanje jednog poteza. Ploča se prije svakog poteza vraća
+     * na početno stanje, a to vraćanje se ne ulazi u mjereno vrijeme.
+     *
+     * @return Prosječno trajanje poteza u milisekundama.
+     */
+    private static double izmjeri(Logika2048 igra, int[][] pocetna, int smjer) {
+        long ukupno = 0;
+        for (int i = 0; i < ZAGRIJAVANJE + PONAVLJANJA; i++) {
+            igra.setBoard(pocetna, 0);
+            long start = System.nanoTime();
+            igra.slide(smjer);
+            long trajanje = System.nanoTime() - start;
+            if (i >= ZAGRIJAVANJE) ukupno += trajanje;
+        }
+        return ukupno / (PONAVLJANJA * 1_000_000.0);
+    }
+
+    /**
+     * Popunjava ploču nasumičnim pločicama (oko četvrtine polja ostaje prazno).
+     */
+    private static int[][] nasumicnaPloca(int velicina, Random random) {
+        int[][] ploca = new int[velicina][velicina];
+        for (int[] red : ploca) {
+            for (int j = 0; j < velicina; j++) {
+                red[j] = random.nextInt(4) == 0 ? 0 : 1 << (1 + random.nextInt(4));
+            }
+        }
+        return ploca;
+    }
+}
@@ -6,57 +6,36 @@ package app;
  * Klasa KonzolnaIgrica implementira igru "2048" u konzolnom okruženju.
  * Omogućava kretanje pločica u četiri smjera (gore, dolje, lijevo, desno),
  * spajanje pločica iste vrijednosti i dodavanje novih pločica nakon svakog validnog poteza.
- * Igra završava kada više nema validnih poteza.
+ * Igra završava kada više nema validnih poteza ili kada se dostigne pločica 2048.
+ *
+ * Pravila igre su ista kao u grafičkoj verziji jer obje koriste `Logika2048`.
+ * Tipke se čitaju odmah, bez Enter-a (terminal se prebacuje u sirovi način pomoću `stty`),
+ * a ploča se ponovo crta samo na promijenjenim poljima ({@link PrikazKonzole}), pa igra
+ * ostaje brza i na velikim pločama preko spore SSH veze.
  */
 
-import java.util.Random;
-import java.util.Scanner;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import logika.Logika2048;
 
 public class KonzolnaIgrica {
 
-    private int[][] ploca; // Dvo-dimenzionalna matrica koja predstavlja ploču igre.
-    private int velicina;  // Dimenzija ploče (npr. 4x4).
-    private Random random; // Generator slučajnih brojeva za dodavanje novih pločica.
+    private final Logika2048 igra; // Logika igre, ista kao u grafičkoj verziji.
+    private final int velicina;    // Dimenzija ploče (npr. 4x4).
+    private final int[] polja;     // Pomoćni niz za kopiju ploče pri iscrtavanju.
 
     /**
-     * Konstruktor inicijalizira ploču i dodaje dvije početne pločice.
+     * Konstruktor kreira novu igru sa dvije početne pločice.
      *
      * @param velicina Dimenzija ploče (npr. 4 za 4x4 ploču).
      */
     public KonzolnaIgrica(int velicina) {
         this.velicina = velicina;
-        this.ploca = new int[velicina][velicina];
-        this.random = new Random();
-        dodajNovuPlocicu();
-        dodajNovuPlocicu();
-    }
-
-    /**
-     * Metoda dodaje novu pločicu s vrijednošću 2 ili 4 na nasumično prazno polje.
-     */
-    private void dodajNovuPlocicu() {
-        int praznihPolja = 0;
-        for (int i = 0; i < velicina; i++) {
-            for (int j = 0; j < velicina; j++) {
-                if (ploca[i][j] == 0) praznihPolja++;
-            }
-        }
-
-        if (praznihPolja > 0) {
-            int indeks = random.nextInt(praznihPolja);
-            int brojac = 0;
-            for (int i = 0; i < velicina; i++) {
-                for (int j = 0; j < velicina; j++) {
-                    if (ploca[i][j] == 0) {
-                        if (brojac == indeks) {
-                            ploca[i][j] = random.nextDouble() < 0.9 ? 2 : 4;
-                            return;
-                        }
-                        brojac++;
-                    }
-                }
-            }
-        }
+        this.igra = new Logika2048(velicina, false);
+        this.polja = new int[velicina * velicina];
     }
 
     /**
@@ -66,65 +45,190 @@ public class KonzolnaIgrica {
      * @return True ako je potez promijenio stanje ploče, false inače.
      */
     public boolean pomakni(String smjer) {
-        // Implementacija logike za pomicanje i spajanje pločica.
-        return false; // Placeholder za stvarnu logiku.
+        int direction = Logika2048.directionOf(smjer);
+        return direction >= 0 && igra.move(direction);
     }
 
     /**
      * Provjerava je li igra završena.
      *
-     * @return True ako nema više validnih poteza, false inače.
+     * @return True ako nema više validnih poteza ili je dostignuta pločica 2048, false inače.
      */
     public boolean igraGotova() {
-        // Implementacija provjere završetka igre.
-        return false; // Placeholder za stvarnu logiku.
+        return igra.isGameOver();
     }
 
     /**
-     * Prikazuje trenutno stanje ploče u konzoli.
+     * Prikazuje trenutno stanje ploče u konzoli, šaljući samo promijenjena polja.
+     *
+     * @param prikaz Prikaz u koji se crta.
+     * @param poruka Poruka ispod ploče.
+     * @throws IOException Ako pisanje u terminal ne uspije.
      */
-    public void prikaziPlocu() {
-        for (int i = 0; i < velicina; i++) {
-            for (int j = 0; j < velicina; j++) {
-                System.out.printf("|%4d", ploca[i][j]);
-            }
-            System.out.println("|");
-        }
-        System.out.println();
+    void prikaziPlocu(PrikazKonzole prikaz, String poruka) throws IOException {
+        igra.copyCells(polja);
+        prikaz.iscrtaj(polja, velicina, igra.getScore(), poruka);
     }
 
     /**
      * Glavna metoda koja pokreće igru i omogućava korisnički unos.
      *
-     * @param args Argumenti komandne linije (ne koriste se).
+     * @param args Opcionalno veličina ploče; ako nije zadana, traži se unos.
+     * @throws IOException Ako čitanje tipki ili pisanje u terminal ne uspije.
+     * @throws InterruptedException Ako je nit prekinuta dok čeka tipku.
      */
-    public static void main(String[] args) {
-        Scanner scanner = new Scanner(System.in);
-
-        System.out.print("Unesite velicinu ploče (npr. 4 za 4x4): ");
-        int velicina = scanner.nextInt();
+    public static void main(String[] args) throws IOException, InterruptedException {
+        InputStream ulaz = System.in;
+        int velicina;
+        if (args.length > 0) {
+            velicina = Integer.parseInt(args[0]);
+        } else {
+            System.out.print("Unesite velicinu ploče (npr. 4 za 4x4): ");
+            velicina = Integer.parseInt(procitajLiniju(ulaz).trim());
+        }
         KonzolnaIgrica igra = new KonzolnaIgrica(velicina);
+        PrikazKonzole prikaz = new PrikazKonzole(System.out);
+
+        SiroviTerminal terminal = SiroviTerminal.ukljuci();
+        String uputa = terminal != null
+                ? "W/A/S/D ili strelice za potez, Q za izlaz."
+                : "W/A/S/D pa Enter za potez, Q za izlaz.";
+        long potezi = 0;
+        try {
+            igra.prikaziPlocu(prikaz, uputa);
+            Tipke tipke = new Tipke();
+            boolean radi = true;
+            while (radi) {
+                int dostupno = ulaz.available();
+                if (dostupno == 0 && terminal != null) {
+                    Thread.sleep(5); // Nema unosa: ne blokiramo na read()
+                    continue;
+                }
+                // Bez sirovog terminala (npr. preusmjeren ulaz) čeka se na unos, da se prepozna kraj ulaza
+                byte[] procitano = new byte[Math.max(1, dostupno)];
+                int n = ulaz.read(procitano);
+                for (int i = 0; i < n && radi; i++) {
+                    String smjer = tipke.obradi(procitano[i]);
+                    if (smjer == null) continue;
+                    if (smjer.equals("q")) {
+                        igra.prikaziPlocu(prikaz, "Napustili ste igru.");
+                        radi = false;
+                    } else if (igra.pomakni(smjer)) {
+                        potezi++;
+                        boolean kraj = igra.igraGotova();
+                        igra.prikaziPlocu(prikaz, kraj ? "Igra je završena!" : uputa);
+                        radi = !kraj;
+                    } else {
+                        igra.prikaziPlocu(prikaz, "Potez nije validan. Pokušajte ponovo.");
+                    }
+                }
+                if (n < 0) radi = false;
+            }
+        } finally {
+            prikaz.zavrsi();
+            if (terminal != null) terminal.vrati();
+        }
+        System.out.printf("Poteza: %d, prosječno bajtova po okviru: %.1f (cijela ploča bi bila %.1f)%n",
+                potezi, prikaz.getProsjekBajtova(), prikaz.getProsjekPunihBajtova());
+    }
+
+    /**
+     * Čita jednu liniju bajt po bajt, bez baferisanja unaprijed, da kasnije tipke ostanu u ulazu.
+     */
+    private static String procitajLiniju(InputStream ulaz) throws IOException {
+        StringBuilder linija = new StringBuilder();
+        int b;
+        while ((b = ulaz.read()) >= 0 && b != '\n') {
+            linija.append((char) b);
+        }
+        return linija.toString();
+    }
 
-        while (true) {
-            igra.prikaziPlocu();
-            if (igra.igraGotova()) {
-                System.out.println("Igra je završena! Nema više poteza.");
-                break;
+    /**
+     * Pretvara bajtove sa tastature u poteze; prepoznaje W/A/S/D, Q i ANSI sekvence strelica
+     * ({@code ESC [ A} do {@code ESC [ D}), i kada stignu u više dijelova.
+     */
+    private static final class Tipke {
+        private int stanje; // 0 - obično, 1 - nakon ESC, 2 - nakon ESC [
+
+        String obradi(byte b) {
+            switch (stanje) {
+                case 1:
+                    stanje = b == '[' ? 2 : 0;
+                    return null;
+                case 2:
+                    stanje = 0;
+                    switch (b) {
+                        case 'A': return "w";
+                        case 'B': return "s";
+                        case 'C': return "d";
+                        case 'D': return "a";
+                        default: return null;
+                    }
+                default:
+                    if (b == 27) {
+                        stanje = 1;
+                        return null;
+                    }
+                    char c = Character.toLowerCase((char) b);
+                    return c == 'w' || c == 'a' || c == 's' || c == 'd' || c == 'q' ? String.valueOf(c) : null;
             }
+        }
+    }
 
-            System.out.print("Unesite potez (W=Gore, A=Lijevo, S=Dolje, D=Desno, Q=Izlaz): ");
-            String potez = scanner.next().toLowerCase();
+    /**
+     * Prebacuje terminal u sirovi način (bez čekanja na Enter i bez ispisa tipki) pomoću
+     * `stty` i vraća ranije postavke pri izlazu.
+     */
+    private static final class SiroviTerminal {
+        private final String postavke;
 
-            if (potez.equals("q")) {
-                System.out.println("Napustili ste igru.");
-                break;
+        private SiroviTerminal(String postavke) {
+            this.postavke = postavke;
+        }
+
+        /**
+         * @return Terminal u sirovom načinu, ili `null` ako to nije moguće (npr. ulaz nije terminal).
+         */
+        static SiroviTerminal ukljuci() {
+            // Preusmjeren ulaz ili izlaz: tipke se čitaju blokirajuće, a kontrolni terminal se ne dira
+            if (System.console() == null) return null;
+            try {
+                String postavke = stty("-g").trim();
+                stty("-icanon -echo min 1");
+                SiroviTerminal terminal = new SiroviTerminal(postavke);
+                Runtime.getRuntime().addShutdownHook(new Thread(terminal::vrati));
+                return terminal;
+            } catch (IOException e) {
+                return null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
             }
+        }
 
-            if (!igra.pomakni(potez)) {
-                System.out.println("Potez nije validan. Pokušajte ponovo.");
+        void vrati() {
+            try {
+                stty(postavke);
+            } catch (IOException e) {
+                System.err.println("Greška pri vraćanju postavki terminala: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             }
         }
 
-        scanner.close();
+        private static String stty(String argumenti) throws IOException, InterruptedException {
+            List<String> komanda = new ArrayList<>();
+            komanda.add("stty");
+            komanda.addAll(Arrays.asList(argumenti.split(" ")));
+            // stty radi nad vlastitim ulazom, pa mu se daje ulaz ovog procesa
+            Process proces = new ProcessBuilder(komanda)
+                    .redirectInput(ProcessBuilder.Redirect.INHERIT)
+                    .redirectErrorStream(true)
+                    .start();
+            String izlaz = new String(proces.getInputStream().readAllBytes());
+            if (proces.waitFor() != 0) throw new IOException("stty: " + izlaz.trim());
+            return izlaz;
+        }
     }
 }
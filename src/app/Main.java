@@ -2,14 +2,30 @@ package app;
 
 
 import interfejs.Prijava;
+import metrika.SnimanjeJfr;
 
 
 /**
  * 	Klasa Main koja sadrži glavni metod
+ *
+ * 	Argument {@code --cds-trening [arhiva.jsa]} umjesto igre pravi CDS arhivu za brže pokretanje
+ * 	(vidi {@link TreningCds}).
  */
 public class Main {
- public static void main(String[] args) {
+ public static void main(String[] args) throws Exception {
+     if (args.length > 0 && args[0].equals(TreningCds.TRENING)) {
+         TreningCds.pokreni(args);
+         return;
+     }
+     if (args.length > 0 && args[0].equals(TreningCds.PROLAZ)) {
+         TreningCds.prolaz();
+         return;
+     }
+     // Pokreće JFR snimanje ako je zadano -Digra2048.jfr=<datoteka>; bez svojstva se JFR klase ne učitavaju
+     if (System.getProperty(SnimanjeJfr.SVOJSTVO) != null) {
+         SnimanjeJfr.pokreniAkoJeZatrazeno();
+     }
      // Kreira novu instancu klase Prijava
      Prijava prijava = new Prijava();
  }
-}
\ No newline at end of file
+}
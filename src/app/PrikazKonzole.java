@@ -0,0 +1,191 @@
+package app;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Klasa PrikazKonzole crta ploču igre u terminalu pomoću ANSI sekvenci.
+ * Prvi okvir iscrtava cijelu ploču, a svaki sljedeći samo polja koja su se promijenila:
+ * kursor se pomjera direktno na polje ({@code ESC[red;kolonaH}) i ispisuje se nova vrijednost.
+ * Cijela ploča se ponovo crta samo kada nova pločica zahtijeva širu kolonu.
+ *
+ * Za svaki okvir se bilježi broj poslanih bajtova, kao i broj bajtova koji bi poslalo
+ * ponovno iscrtavanje cijele ploče, pa se ušteda može izmjeriti.
+ */
+class PrikazKonzole {
+
+    private static final String ESC = "\u001b[";
+
+    /** Red terminala (od 1) u kojem počinje ploča; iznad nje je rezultat. */
+    private static final int PRVI_RED = 3;
+
+    private final OutputStream izlaz;
+    private final StringBuilder okvir = new StringBuilder();
+
+    /** Vrijednosti koje su trenutno na ekranu, ili `null` prije prvog okvira. */
+    private int[] prikazano;
+    private int velicina;
+    private int sirina;
+    private int prikazaniRezultat = -1;
+    private String prikazanaPoruka = "";
+
+    private long okvira;
+    private long ukupnoBajtova;
+    private long ukupnoPunihBajtova;
+    private int zadnjiBajtova;
+
+    /**
+     * Kreira prikaz koji piše u zadani izlaz.
+     *
+     * @param izlaz Izlaz terminala (npr. System.out).
+     */
+    PrikazKonzole(OutputStream izlaz) {
+        this.izlaz = izlaz;
+    }
+
+    /**
+     * Iscrtava ploču, šaljući samo promjene u odnosu na prethodni okvir.
+     *
+     * @param polja Vrijednosti pločica red po red.
+     * @param velicina Dimenzija ploče.
+     * @param rezultat Trenutni rezultat.
+     * @param poruka Poruka ispod ploče (prazna ako je nema).
+     * @throws IOException Ako pisanje u terminal ne uspije.
+     */
+    void iscrtaj(int[] polja, int velicina, int rezultat, String poruka) throws IOException {
+        int potrebnaSirina = sirinaKolone(polja);
+        okvir.setLength(0);
+        if (prikazano == null || velicina != this.velicina || potrebnaSirina != sirina) {
+            this.velicina = velicina;
+            this.sirina = potrebnaSirina;
+            prikazano = polja.clone();
+            punOkvir(polja, rezultat, poruka);
+        } else {
+            for (int i = 0; i < polja.length; i++) {
+                if (polja[i] != prikazano[i]) {
+                    pozicija(PRVI_RED + i / velicina, 2 + (i % velicina) * (sirina + 1));
+                    celija(polja[i]);
+                    prikazano[i] = polja[i];
+                }
+            }
+            if (rezultat != prikazaniRezultat) rezultat(rezultat);
+            if (!poruka.equals(prikazanaPoruka)) poruka(poruka);
+            pozicija(PRVI_RED + velicina + 2, 1);
+        }
+        byte[] bajtovi = okvir.toString().getBytes(StandardCharsets.UTF_8);
+        izlaz.write(bajtovi);
+        izlaz.flush();
+
+        zadnjiBajtova = bajtovi.length;
+        ukupnoBajtova += bajtovi.length;
+        okvira++;
+        ukupnoPunihBajtova += bajtovaPunogOkvira(rezultat, poruka);
+    }
+
+    /**
+     * Računa koliko bajtova bi poslao {@link #punOkvir}, bez sastavljanja okvira.
+     */
+    private int bajtovaPunogOkvira(int rezultat, String poruka) {
+        int bajtova = 13; // Sakrivanje kursora, brisanje ekrana i kursor na početak
+        bajtova += pozicijaBajtova(1) + "Rezultat: ".length() + String.valueOf(rezultat).length() + 3;
+        bajtova += 4;
+        bajtova += velicina * (velicina * (sirina + 1) + 3); // Redovi: "|" i ćelija po koloni, pa "|\r\n"
+        bajtova += pozicijaBajtova(PRVI_RED + velicina + 1) + poruka.getBytes(StandardCharsets.UTF_8).length + 3;
+        return bajtova + pozicijaBajtova(PRVI_RED + velicina + 2);
+    }
+
+    /**
+     * Dužina sekvence {@code ESC[red;1H}.
+     */
+    private static int pozicijaBajtova(int red) {
+        return 5 + String.valueOf(red).length();
+    }
+
+    /**
+     * Briše ekran i iscrtava cijelu ploču u `okvir`.
+     */
+    private void punOkvir(int[] polja, int rezultat, String poruka) {
+        okvir.append(ESC).append("?25l").append(ESC).append("2J").append(ESC).append('H');
+        rezultat(rezultat);
+        okvir.append("\r\n\r\n");
+        for (int red = 0; red < velicina; red++) {
+            for (int kolona = 0; kolona < velicina; kolona++) {
+                okvir.append('|');
+                celija(polja[red * velicina + kolona]);
+            }
+            okvir.append("|\r\n");
+        }
+        poruka(poruka);
+        pozicija(PRVI_RED + velicina + 2, 1);
+    }
+
+    private void rezultat(int rezultat) {
+        pozicija(1, 1);
+        okvir.append("Rezultat: ").append(rezultat).append(ESC).append('K');
+        prikazaniRezultat = rezultat;
+    }
+
+    private void poruka(String poruka) {
+        pozicija(PRVI_RED + velicina + 1, 1);
+        okvir.append(poruka).append(ESC).append('K');
+        prikazanaPoruka = poruka;
+    }
+
+    private void celija(int vrijednost) {
+        String tekst = vrijednost == 0 ? "." : String.valueOf(vrijednost);
+        for (int i = tekst.length(); i < sirina; i++) {
+            okvir.append(' ');
+        }
+        okvir.append(tekst);
+    }
+
+    private void pozicija(int red, int kolona) {
+        okvir.append(ESC).append(red).append(';').append(kolona).append('H');
+    }
+
+    /**
+     * Širina kolone: broj cifara najveće pločice, najmanje 4 kao u ranijem ispisu.
+     */
+    private static int sirinaKolone(int[] polja) {
+        int najveca = 0;
+        for (int v : polja) {
+            najveca = Math.max(najveca, v);
+        }
+        return Math.max(4, String.valueOf(najveca).length());
+    }
+
+    /**
+     * Vraća kursor ispod ploče i ponovo ga prikazuje.
+     *
+     * @throws IOException Ako pisanje u terminal ne uspije.
+     */
+    void zavrsi() throws IOException {
+        okvir.setLength(0);
+        pozicija(PRVI_RED + velicina + 3, 1);
+        okvir.append(ESC).append("?25h");
+        izlaz.write(okvir.toString().getBytes(StandardCharsets.UTF_8));
+        izlaz.flush();
+    }
+
+    /**
+     * @return Broj bajtova poslanih za zadnji okvir.
+     */
+    int getZadnjiBajtova() {
+        return zadnjiBajtova;
+    }
+
+    /**
+     * @return Prosječan broj poslanih bajtova po okviru.
+     */
+    double getProsjekBajtova() {
+        return okvira == 0 ? 0 : (double) ukupnoBajtova / okvira;
+    }
+
+    /**
+     * @return Prosječan broj bajtova koji bi poslalo iscrtavanje cijele ploče u svakom okviru.
+     */
+    double getProsjekPunihBajtova() {
+        return okvira == 0 ? 0 : (double) ukupnoPunihBajtova / okvira;
+    }
+}
@@ -0,0 +1,102 @@
+package app;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import logika.Logika2048;
+import logika.TabelaRjesenja;
+import logika.TacniRjesavac;
+
+/**
+ * Klasa TacnaRjesenja pravi ili otvara tabelu tačnih rješenja ({@link TacniRjesavac},
+ * {@link TabelaRjesenja}) za ploču 2x2 ili 3x3 i ispisuje očekivani rezultat i vjerovatnoću
+ * pobjede od početka igre uz najbolju igru. Zatim mjeri trajanje upita i igra zadani broj
+ * igara na `Logika2048` sa potezima iz tabele: prosječan rezultat mora biti blizu tačnog
+ * očekivanja, što potvrđuje da tabela i igra imaju ista pravila.
+ *
+ * Pokretanje: {@code java app.TacnaRjesenja [veličina] [ciljna pločica] [datoteka] [broj igara]}
+ * (podrazumijevano 3, 256, rjesenja-3x3-256.bin i 1000). Postojeća datoteka se ponovo
+ * koristi; tabela 3x3 ima oko 49 miliona stanja (1,2 GB).
+ */
+public class TacnaRjesenja {
+
+    /** Broj upita za mjerenje trajanja. */
+    private static final int UPITA = 1_000_000;
+
+    /**
+     * Glavna metoda.
+     *
+     * @param args Veličina ploče, ciljna pločica, datoteka i broj igara za provjeru.
+     * @throws IOException Ako se tabela ne može spremiti ili pročitati.
+     */
+    public static void main(String[] args) throws IOException {
+        int velicina = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+        int cilj = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        Path datoteka = Path.of(args.length > 2 ? args[2] : "rjesenja-" + velicina + "x" + velicina + "-" + cilj + ".bin");
+        int igara = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+
+        if (!Files.exists(datoteka)) {
+            long start = System.nanoTime();
+            TacniRjesavac rjesavac = new TacniRjesavac(velicina, cilj);
+            rjesavac.rijesi();
+            System.out.printf("Riješeno %,d stanja u %d slojeva za %.1f s%n",
+                    rjesavac.brojStanja(), rjesavac.brojSlojeva(), (System.nanoTime() - start) / 1e9);
+            rjesavac.zapisi(datoteka);
+            System.out.printf("Spremljeno u %s (%,d MB)%n", datoteka, Files.size(datoteka) >> 20);
+        }
+
+        long start = System.nanoTime();
+        TabelaRjesenja tabela = TabelaRjesenja.otvori(datoteka);
+        System.out.printf("Tabela %s otvorena za %.2f ms: %dx%d, %,d stanja%n", datoteka,
+                (System.nanoTime() - start) / 1e6, tabela.getVelicina(), tabela.getVelicina(), tabela.brojStanja());
+        if (tabela.getVelicina() != velicina || tabela.getCiljnaPlocica() != cilj) {
+            System.err.printf("Datoteka je za ploču %dx%d i cilj %d; obrišite je ili zadajte drugu datoteku.%n",
+                    tabela.getVelicina(), tabela.getVelicina(), tabela.getCiljnaPlocica());
+            return;
+        }
+        double ocekivano = tabela.vrijednostIgre(false);
+        System.out.printf("Očekivani rezultat uz najbolju igru: %.4f%n", ocekivano);
+        System.out.printf("Vjerovatnoća pločice %d uz najbolju igru: %.6f%n", cilj, tabela.vrijednostIgre(true));
+
+        provjeri(tabela, velicina, igara, ocekivano);
+    }
+
+    /**
+     * Mjeri upite i igra igre sa potezima iz tabele.
+     */
+    private static void provjeri(TabelaRjesenja tabela, int velicina, int igara, double ocekivano) {
+        int[] polja = new int[velicina * velicina];
+        Logika2048 igra = new Logika2048(velicina, false, 1);
+        long start = System.nanoTime();
+        double zbir = 0;
+        for (int i = 0; i < UPITA; i++) {
+            if (igra.isGameOver()) igra.reset();
+            igra.copyCells(polja);
+            zbir += tabela.ocekivaniRezultat(polja);
+            int smjer = tabela.najboljiPotez(polja, false);
+            if (smjer >= 0) igra.move(smjer);
+        }
+        System.out.printf("Vrijednost i najbolji potez: %.0f ns po poziciji (kontrolni zbir %.0f)%n", (System.nanoTime() - start) / (double) UPITA, zbir);
+
+        SplittableRandom sjemena = new SplittableRandom(2048);
+        double suma = 0;
+        double sumaKvadrata = 0;
+        for (int i = 0; i < igara; i++) {
+            igra = new Logika2048(velicina, false, sjemena.nextLong());
+            while (!igra.isGameOver()) {
+                igra.copyCells(polja);
+                int smjer = tabela.najboljiPotez(polja, false);
+                if (smjer < 0) break;
+                igra.move(smjer);
+            }
+            suma += igra.getScore();
+            sumaKvadrata += (double) igra.getScore() * igra.getScore();
+        }
+        if (igara == 0) return;
+        double prosjek = suma / igara;
+        double greska = Math.sqrt(Math.max(0, sumaKvadrata / igara - prosjek * prosjek) / igara);
+        System.out.printf("%d igara sa potezima iz tabele: prosjek %.1f ± %.1f (tačno %.1f, odstupanje %.1f standardnih grešaka)%n",
+                igara, prosjek, greska, ocekivano, Math.abs(prosjek - ocekivano) / Math.max(greska, 1e-9));
+    }
+}
@@ -0,0 +1,134 @@
+package app;
+
+import interfejs.IgricaGUI;
+import interfejs.Preducitavanje;
+import interfejs.Prijava;
+import java.awt.Frame;
+import java.awt.GraphicsEnvironment;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.SwingUtilities;
+import logika.Logika2048;
+
+/**
+ * Klasa TreningCds pravi CDS arhivu (class data sharing) za brže pokretanje igre.
+ * Aplikacija sama sebe pokreće u novom JVM-u sa {@code -XX:ArchiveClassesAtExit}; taj proces
+ * prolazi kroz tipičan početak igre (prijava, ploča, potezi, spremanje i učitavanje), a JVM
+ * pri izlasku sprema sve učitane klase u arhivu. Sljedeća pokretanja sa
+ * {@code -XX:SharedArchiveFile} učitavaju te klase iz arhive umjesto iz JAR-a.
+ *
+ * Pokretanje: {@code java app.Main --cds-trening [arhiva.jsa]}.
+ */
+final class TreningCds {
+
+    /** Argument kojim `Main` pokreće trening. */
+    static final String TRENING = "--cds-trening";
+
+    /** Argument kojim se pokreće proces koji prolazi kroz igru dok JVM bilježi klase. */
+    static final String PROLAZ = "--cds-prolaz";
+
+    /** Podrazumijevana putanja arhive. */
+    private static final String ARHIVA = "igra2048.jsa";
+
+    private TreningCds() {
+    }
+
+    /**
+     * Pokreće trening u novom JVM-u i čeka da arhiva bude spremljena.
+     *
+     * @param args Argumenti komandne linije; opcionalno putanja arhive nakon {@link #TRENING}.
+     * @throws IOException Ako se proces ne može pokrenuti.
+     * @throws InterruptedException Ako je nit prekinuta dok čeka proces.
+     */
+    static void pokreni(String[] args) throws IOException, InterruptedException {
+        String arhiva = args.length > 1 ? args[1] : ARHIVA;
+        String java = ProcessHandle.current().info().command()
+                .orElse(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+
+        for (String putanja : putanje()) {
+            if (new File(putanja).isDirectory()) {
+                System.err.println("CDS arhiva zahtijeva aplikaciju spakovanu u JAR, a ne direktorij klasa: " + putanja);
+                return;
+            }
+        }
+
+        List<String> komanda = new ArrayList<>();
+        komanda.add(java);
+        komanda.add("-XX:ArchiveClassesAtExit=" + arhiva);
+        komanda.addAll(pokretanje());
+        komanda.add(PROLAZ);
+        System.out.println("CDS trening: " + String.join(" ", komanda));
+        int izlaz = new ProcessBuilder(komanda).inheritIO().start().waitFor();
+        if (izlaz != 0 || !Files.exists(Path.of(arhiva))) {
+            System.err.println("CDS trening nije uspio (izlazni kod " + izlaz + ").");
+            return;
+        }
+        List<String> primjer = new ArrayList<>();
+        primjer.add("java");
+        primjer.add("-XX:SharedArchiveFile=" + arhiva);
+        primjer.addAll(pokretanje());
+        System.out.printf("Arhiva %s spremljena (%d KB). Pokretanje sa arhivom:%n  %s%n",
+                arhiva, Files.size(Path.of(arhiva)) / 1024, String.join(" ", primjer));
+    }
+
+    /**
+     * Vraća argumente kojima je pokrenut trenutni program (module path ili classpath i glavna klasa).
+     */
+    private static List<String> pokretanje() {
+        String modulePath = System.getProperty("jdk.module.path");
+        if (modulePath != null && Main.class.getModule().isNamed()) {
+            return List.of("--module-path", modulePath, "-m", Main.class.getModule().getName() + "/" + Main.class.getName());
+        }
+        return List.of("-cp", System.getProperty("java.class.path"), Main.class.getName());
+    }
+
+    /**
+     * Vraća elemente module path-a ili classpath-a trenutnog programa.
+     */
+    private static String[] putanje() {
+        List<String> argumenti = pokretanje();
+        return argumenti.get(1).split(File.pathSeparator);
+    }
+
+    /**
+     * Prolazi kroz tipičan početak igre da bi JVM učitao klase koje treba arhivirati,
+     * a zatim zatvara sve prozore i završava proces.
+     *
+     * @throws IOException Ako privremena datoteka za spremanje igre ne može biti kreirana.
+     * @throws InterruptedException Ako je nit prekinuta dok čeka nit događaja.
+     * @throws InvocationTargetException Ako kreiranje prozora ne uspije.
+     */
+    static void prolaz() throws IOException, InterruptedException, InvocationTargetException {
+        Preducitavanje.izvrsi();
+
+        Logika2048 igra = new Logika2048(4, false);
+        for (int i = 0; i < 500 && !igra.isGameOver(); i++) {
+            igra.move(i & 3);
+        }
+        Path datoteka = Files.createTempFile("igra2048-trening", ".dat");
+        try {
+            igra.saveState(datoteka.toString());
+            igra.loadState(datoteka.toString());
+        } finally {
+            Files.deleteIfExists(datoteka);
+        }
+
+        if (!GraphicsEnvironment.isHeadless()) {
+            SwingUtilities.invokeAndWait(() -> {
+                new Prijava();
+                new IgricaGUI(4);
+            });
+            SwingUtilities.invokeAndWait(() -> {
+                for (Frame prozor : Frame.getFrames()) {
+                    prozor.dispose();
+                }
+            });
+        }
+        System.exit(0);
+    }
+}
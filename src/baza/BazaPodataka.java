@@ -1,11 +1,20 @@
 package baza;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import metrika.JdbcEvent;
+import metrika.MetrikeIgre;
 
 /**
  * Klasa `BazaPodataka` pruža funkcionalnost za povezivanje sa bazom podataka koristeći JDBC.
+ * JDBC drajveri se učitavaju tek pri prvom povezivanju, pa igrači koji ne otvaraju listu
+ * rezultata i ne spremaju rezultat ne plaćaju njihovo učitavanje pri pokretanju.
+ *
+ * Iz komandne linije klasa izvozi i uvozi tabelu `highscore` (vidi {@link #main(String[])}).
  */
 public class BazaPodataka {
     
@@ -25,13 +34,127 @@ public class BazaPodataka {
      *         ili `null` ukoliko se nije moglo uspostaviti povezivanje.
      */
     public static Connection connect() {
+        return connect(URL);
+    }
+
+    /**
+     * Povezuje se sa bazom podataka na zadanom URL-u (npr. sa dodatnim parametrima drajvera).
+     */
+    private static Connection connect(String url) {
         Connection connection = null;
+        JdbcEvent event = new JdbcEvent();
+        event.begin();
+        long start = System.nanoTime();
         try {
-            connection = DriverManager.getConnection(URL, USER, PASSWORD);
+            connection = DriverManager.getConnection(url, USER, PASSWORD);
+            MetrikeIgre.get().jdbcPovezivanje(System.nanoTime() - start, true);
             System.out.println("Povezivanje uspešno!"); // Ispisuje poruku u konzoli ukoliko je povezivanje uspešno
         } catch (SQLException e) {
+            MetrikeIgre.get().jdbcPovezivanje(System.nanoTime() - start, false);
             System.out.println("Greška pri povezivanju: " + e.getMessage()); // Ispisuje poruku sa greškom ukoliko se javi problem pri povezivanju
         }
+        if (event.shouldCommit()) {
+            event.operacija = "povezivanje";
+            event.uspjesno = connection != null;
+            event.commit();
+        }
         return connection;
     }
+
+    /**
+     * Upisuje rezultat igrača u tabelu `highscore`.
+     *
+     * @param ime Ime igrača.
+     * @param rezultat Rezultat igre.
+     * @return `true` ako je rezultat upisan, `false` inače.
+     */
+    public static boolean spremiRezultat(String ime, int rezultat) {
+        // Konekcija se otvara preko connect(), koja bilježi i trajanje povezivanja
+        Connection connection = connect();
+        if (connection == null) return false;
+
+        JdbcEvent event = new JdbcEvent();
+        event.begin();
+        long start = System.nanoTime();
+        boolean uspjesno = false;
+        try (connection) {
+            String query = "INSERT INTO highscore (ime, skor) VALUES (?, ?)";
+            try (PreparedStatement statement = connection.prepareStatement(query)) {
+                statement.setString(1, ime);
+                statement.setInt(2, rezultat);
+                statement.executeUpdate();
+                uspjesno = true;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        } finally {
+            MetrikeIgre.get().jdbcUpis(System.nanoTime() - start, uspjesno);
+            if (event.shouldCommit()) {
+                event.operacija = "upis";
+                event.redova = uspjesno ? 1 : 0;
+                event.uspjesno = uspjesno;
+                event.commit();
+            }
+        }
+        return uspjesno;
+    }
+
+    /**
+     * Izvoz, uvoz i generisanje rezultata iz komandne linije:
+     * <pre>
+     * java baza.BazaPodataka izvoz datoteka.csv [fetch size]
+     * java baza.BazaPodataka uvoz datoteka.csv [redova po INSERT naredbi]
+     * java baza.BazaPodataka generisi datoteka.csv broj-redova [sjeme]
+     * </pre>
+     *
+     * @param args Komanda i njeni argumenti.
+     * @throws IOException Ako čitanje ili pisanje datoteke ne uspije.
+     * @throws SQLException Ako upit ili upis ne uspije.
+     */
+    public static void main(String[] args) throws IOException, SQLException {
+        if (args.length < 2) {
+            System.err.println("Upotreba: java baza.BazaPodataka izvoz|uvoz datoteka.csv [veličina serije]");
+            System.err.println("          java baza.BazaPodataka generisi datoteka.csv broj-redova [sjeme]");
+            System.exit(2);
+        }
+        Path datoteka = Path.of(args[1]);
+        switch (args[0]) {
+            case "izvoz": {
+                int fetchSize = args.length > 2 ? Integer.parseInt(args[2]) : PrenosHighscore.FETCH_SIZE;
+                if (fetchSize < 1 || fetchSize > PrenosHighscore.MAKS_FETCH_SIZE) {
+                    System.err.println("Broj redova po dohvatu mora biti između 1 i " + PrenosHighscore.MAKS_FETCH_SIZE
+                            + ", zadano: " + fetchSize);
+                    System.exit(2);
+                }
+                // Bez useCursorFetch MySQL drajver učitava cijeli rezultat u memoriju bez obzira na fetch size
+                try (Connection connection = connect(URL + "?useCursorFetch=true&defaultFetchSize=" + fetchSize)) {
+                    if (connection == null) System.exit(1);
+                    PrenosHighscore.izvezi(connection, datoteka, fetchSize);
+                }
+                break;
+            }
+            case "uvoz": {
+                int velicinaSerije = args.length > 2 ? Integer.parseInt(args[2]) : PrenosHighscore.VELICINA_SERIJE;
+                if (velicinaSerije < 1 || velicinaSerije > PrenosHighscore.MAKS_VELICINA_SERIJE) {
+                    System.err.println("Veličina serije mora biti između 1 i " + PrenosHighscore.MAKS_VELICINA_SERIJE
+                            + " redova po INSERT naredbi, zadano: " + velicinaSerije);
+                    System.exit(2);
+                }
+                try (Connection connection = connect()) {
+                    if (connection == null) System.exit(1);
+                    PrenosHighscore.uvezi(connection, datoteka, velicinaSerije);
+                }
+                break;
+            }
+            case "generisi": {
+                long broj = args.length > 2 ? Long.parseLong(args[2]) : 1_000_000;
+                long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+                PrenosHighscore.generisi(datoteka, broj, seed);
+                break;
+            }
+            default:
+                System.err.println("Nepoznata komanda: " + args[0]);
+                System.exit(2);
+        }
+    }
 }
@@ -0,0 +1,395 @@
+package baza;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import metrika.JdbcEvent;
+
+/**
+ * Klasa `PrenosHighscore` izvozi tabelu `highscore` u CSV datoteku i uvozi je iz nje,
+ * red po red, pa memorija ne zavisi od broja redova (i za desetine miliona redova).
+ *
+ * Izvoz čita kroz kursor sa ograničenim brojem redova po dohvatu (fetch size), umjesto da
+ * drajver učita cijeli rezultat. Uvoz šalje višeredne INSERT naredbe sa zadanim brojem
+ * redova po naredbi i potvrđuje transakciju nakon svake naredbe. Oba smjera ispisuju
+ * napredak (redova i redova u sekundi) jednom u sekundi.
+ *
+ * Format datoteke: zaglavlje {@code ime,skor}, zatim jedan red po rezultatu; ime je pod
+ * navodnicima ako sadrži zarez, navodnik ili novi red. Prazno polje bez navodnika označava
+ * `NULL`, a prazan tekst se piše kao {@code ""}, pa se oba čuvaju pri izvozu i uvozu.
+ * Znakovi {@code \r} i {@code \n} unutar navodnika se uvoze nepromijenjeni.
+ */
+final class PrenosHighscore {
+
+    /** Podrazumijevani broj redova po dohvatu pri izvozu. */
+    static final int FETCH_SIZE = 1_000;
+
+    /** Najveći broj redova po dohvatu (toliko redova drajver drži u memoriji). */
+    static final int MAKS_FETCH_SIZE = 100_000;
+
+    /** Podrazumijevani broj redova po INSERT naredbi pri uvozu. */
+    static final int VELICINA_SERIJE = 1_000;
+
+    /** Najveći broj redova po INSERT naredbi (MySQL dozvoljava najviše 65535 parametara). */
+    static final int MAKS_VELICINA_SERIJE = 10_000;
+
+    /** Zaglavlje CSV datoteke. */
+    private static final String ZAGLAVLJE = "ime,skor";
+
+    private PrenosHighscore() {
+    }
+
+    /**
+     * Izvozi sve rezultate u CSV datoteku.
+     *
+     * @param connection Otvorena konekcija (sa uključenim kursorom za MySQL).
+     * @param datoteka Odredišna datoteka.
+     * @param fetchSize Broj redova po dohvatu sa servera (od 1 do {@link #MAKS_FETCH_SIZE}).
+     * @return Broj izvezenih redova.
+     * @throws SQLException Ako upit ne uspije.
+     * @throws IOException Ako pisanje u datoteku ne uspije.
+     * @throws IllegalArgumentException Ako broj redova po dohvatu nije u dozvoljenom opsegu.
+     */
+    static long izvezi(Connection connection, Path datoteka, int fetchSize) throws SQLException, IOException {
+        if (fetchSize < 1 || fetchSize > MAKS_FETCH_SIZE) {
+            throw new IllegalArgumentException("Broj redova po dohvatu mora biti između 1 i " + MAKS_FETCH_SIZE
+                    + ", zadano: " + fetchSize);
+        }
+        JdbcEvent event = new JdbcEvent();
+        event.begin();
+        Napredak napredak = new Napredak("izvezeno");
+        boolean uspjesno = false;
+        connection.setAutoCommit(false); // Kursor mora ostati otvoren dok se čita
+        try (Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+             BufferedWriter izlaz = Files.newBufferedWriter(datoteka, StandardCharsets.UTF_8)) {
+            statement.setFetchSize(fetchSize);
+            izlaz.write(ZAGLAVLJE);
+            izlaz.newLine();
+            try (ResultSet resultSet = statement.executeQuery("SELECT ime, skor FROM highscore")) {
+                StringBuilder red = new StringBuilder();
+                while (resultSet.next()) {
+                    red.setLength(0);
+                    dodajPolje(red, resultSet.getString(1));
+                    red.append(',').append(resultSet.getInt(2));
+                    izlaz.append(red).append(System.lineSeparator());
+                    napredak.red();
+                }
+            }
+            connection.commit();
+            uspjesno = true;
+        } finally {
+            napredak.kraj();
+            zabiljezi(event, "izvoz", napredak.getRedova(), uspjesno);
+        }
+        return napredak.getRedova();
+    }
+
+    /**
+     * Uvozi rezultate iz CSV datoteke višerednim INSERT naredbama.
+     *
+     * @param connection Otvorena konekcija.
+     * @param datoteka Izvorna datoteka.
+     * @param velicinaSerije Broj redova po INSERT naredbi (od 1 do {@link #MAKS_VELICINA_SERIJE}).
+     * @return Broj uvezenih redova.
+     * @throws SQLException Ako upis ne uspije (nepotvrđena serija se poništava).
+     * @throws IOException Ako čitanje datoteke ne uspije ili red nije ispravan.
+     * @throws IllegalArgumentException Ako veličina serije nije u dozvoljenom opsegu.
+     */
+    static long uvezi(Connection connection, Path datoteka, int velicinaSerije) throws SQLException, IOException {
+        if (velicinaSerije < 1 || velicinaSerije > MAKS_VELICINA_SERIJE) {
+            throw new IllegalArgumentException("Veličina serije mora biti između 1 i " + MAKS_VELICINA_SERIJE
+                    + ", zadano: " + velicinaSerije);
+        }
+        JdbcEvent event = new JdbcEvent();
+        event.begin();
+        Napredak napredak = new Napredak("uvezeno");
+        boolean uspjesno = false;
+        connection.setAutoCommit(false);
+        String[] imena = new String[velicinaSerije];
+        int[] skorovi = new int[velicinaSerije];
+        try (BufferedReader ulaz = Files.newBufferedReader(datoteka, StandardCharsets.UTF_8);
+             PreparedStatement puna = connection.prepareStatement(insert(velicinaSerije))) {
+            CitacZapisa citac = new CitacZapisa(ulaz);
+            String linija = citac.sljedeci();
+            if (linija != null && !linija.equals(ZAGLAVLJE)) {
+                throw new IOException("Očekivano zaglavlje '" + ZAGLAVLJE + "', pronađeno: " + linija);
+            }
+            int uSeriji = 0;
+            long sljedecaLinija = 2;
+            List<String> polja = new ArrayList<>(2);
+            while ((linija = citac.sljedeci()) != null) {
+                long brojLinije = sljedecaLinija;
+                sljedecaLinija += 1 + prelomi(linija);
+                if (linija.isEmpty()) continue;
+                if (!procitajPolja(linija, polja)) throw new IOException("Nezatvoreni navodnici u liniji " + brojLinije);
+                if (polja.size() != 2) throw new IOException("Neispravan red u liniji " + brojLinije + ": " + linija);
+                imena[uSeriji] = polja.get(0);
+                try {
+                    if (polja.get(1) == null) throw new NumberFormatException("prazan skor");
+                    skorovi[uSeriji] = Integer.parseInt(polja.get(1).trim());
+                } catch (NumberFormatException e) {
+                    throw new IOException("Neispravan skor u liniji " + brojLinije + ": " + polja.get(1), e);
+                }
+                if (++uSeriji == velicinaSerije) {
+                    upisi(connection, puna, imena, skorovi, uSeriji);
+                    napredak.redova(uSeriji);
+                    uSeriji = 0;
+                }
+            }
+            if (uSeriji > 0) {
+                try (PreparedStatement ostatak = connection.prepareStatement(insert(uSeriji))) {
+                    upisi(connection, ostatak, imena, skorovi, uSeriji);
+                }
+                napredak.redova(uSeriji);
+            }
+            uspjesno = true;
+        } catch (SQLException | IOException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            napredak.kraj();
+            zabiljezi(event, "uvoz", napredak.getRedova(), uspjesno);
+        }
+        return napredak.getRedova();
+    }
+
+    /**
+     * Piše CSV datoteku sa nasumičnim rezultatima (za testiranje liste rezultata i uvoza).
+     *
+     * @param datoteka Odredišna datoteka.
+     * @param broj Broj redova.
+     * @param seed Sjeme generatora.
+     * @throws IOException Ako pisanje ne uspije.
+     */
+    static void generisi(Path datoteka, long broj, long seed) throws IOException {
+        SplittableRandom random = new SplittableRandom(seed);
+        Napredak napredak = new Napredak("generisano");
+        try (BufferedWriter izlaz = Files.newBufferedWriter(datoteka, StandardCharsets.UTF_8)) {
+            izlaz.write(ZAGLAVLJE);
+            izlaz.newLine();
+            for (long i = 0; i < broj; i++) {
+                izlaz.write("igrac");
+                izlaz.write(Long.toString(random.nextLong(1_000_000)));
+                izlaz.write(',');
+                // Rezultati slični stvarnim igrama: većina ispod 20000, rijetki iznad
+                izlaz.write(Integer.toString((int) (-Math.log(1 - random.nextDouble()) * 5_000)));
+                izlaz.newLine();
+                napredak.red();
+            }
+        } finally {
+            napredak.kraj();
+        }
+    }
+
+    /**
+     * Izvršava jednu višerednu INSERT naredbu i potvrđuje transakciju.
+     */
+    private static void upisi(Connection connection, PreparedStatement statement, String[] imena, int[] skorovi, int broj)
+            throws SQLException {
+        for (int i = 0; i < broj; i++) {
+            statement.setString(2 * i + 1, imena[i]);
+            statement.setInt(2 * i + 2, skorovi[i]);
+        }
+        statement.executeUpdate();
+        connection.commit();
+    }
+
+    /**
+     * Vraća INSERT naredbu za zadani broj redova.
+     */
+    static String insert(int redova) {
+        StringBuilder sql = new StringBuilder("INSERT INTO highscore (ime, skor) VALUES ");
+        for (int i = 0; i < redova; i++) {
+            sql.append(i == 0 ? "(?, ?)" : ", (?, ?)");
+        }
+        return sql.toString();
+    }
+
+    /**
+     * Dodaje polje u CSV red, pod navodnicima ako je potrebno. `null` ostaje prazno polje
+     * bez navodnika, a prazan tekst se piše kao {@code ""}.
+     */
+    static void dodajPolje(StringBuilder red, String vrijednost) {
+        if (vrijednost == null) return;
+        if (!vrijednost.isEmpty() && vrijednost.indexOf(',') < 0 && vrijednost.indexOf('"') < 0
+                && vrijednost.indexOf('\n') < 0 && vrijednost.indexOf('\r') < 0) {
+            red.append(vrijednost);
+            return;
+        }
+        red.append('"');
+        for (int i = 0; i < vrijednost.length(); i++) {
+            char c = vrijednost.charAt(i);
+            if (c == '"') red.append('"');
+            red.append(c);
+        }
+        red.append('"');
+    }
+
+    /**
+     * Broji prelome reda unutar zapisa (za broj linije u porukama o greškama).
+     */
+    private static int prelomi(String zapis) {
+        int broj = 0;
+        for (int i = 0; i < zapis.length(); i++) {
+            char c = zapis.charAt(i);
+            if (c == '\n' || (c == '\r' && (i + 1 == zapis.length() || zapis.charAt(i + 1) != '\n'))) broj++;
+        }
+        return broj;
+    }
+
+    /**
+     * Razdvaja CSV red na polja.
+     *
+     * @param linija Red (može sadržavati nove redove unutar navodnika).
+     * @param polja Izlaz: polja reda; prazno polje bez navodnika je `null`.
+     * @return `false` ako su navodnici ostali otvoreni (red se nastavlja u sljedećoj liniji).
+     */
+    static boolean procitajPolja(String linija, List<String> polja) {
+        polja.clear();
+        StringBuilder polje = new StringBuilder();
+        boolean uNavodnicima = false;
+        boolean poNavodnicima = false; // Polje je imalo navodnike, pa prazno polje nije NULL
+        for (int i = 0; i < linija.length(); i++) {
+            char c = linija.charAt(i);
+            if (uNavodnicima) {
+                if (c == '"') {
+                    if (i + 1 < linija.length() && linija.charAt(i + 1) == '"') {
+                        polje.append('"');
+                        i++;
+                    } else {
+                        uNavodnicima = false;
+                    }
+                } else {
+                    polje.append(c);
+                }
+            } else if (c == '"') {
+                uNavodnicima = true;
+                poNavodnicima = true;
+            } else if (c == ',') {
+                polja.add(polje.length() == 0 && !poNavodnicima ? null : polje.toString());
+                polje.setLength(0);
+                poNavodnicima = false;
+            } else {
+                polje.append(c);
+            }
+        }
+        if (uNavodnicima) return false;
+        polja.add(polje.length() == 0 && !poNavodnicima ? null : polje.toString());
+        return true;
+    }
+
+    private static void zabiljezi(JdbcEvent event, String operacija, long redova, boolean uspjesno) {
+        if (event.shouldCommit()) {
+            event.operacija = operacija;
+            event.redova = redova;
+            event.uspjesno = uspjesno;
+            event.commit();
+        }
+    }
+
+    /**
+     * Čita CSV zapise do kraja reda izvan navodnika. Za razliku od `readLine`, prelomi unutar
+     * navodnika ostaju kakvi jesu ({@code \r}, {@code \n} ili {@code \r\n}). Čita u vlastiti
+     * bafer i pretražuje ga, jer je čitanje znak po znak višestruko sporije.
+     */
+    static final class CitacZapisa {
+        private final Reader ulaz;
+        private final char[] bafer = new char[8192];
+        private final StringBuilder zapis = new StringBuilder();
+        private int pozicija;
+        private int kraj;
+
+        CitacZapisa(Reader ulaz) {
+            this.ulaz = ulaz;
+        }
+
+        /**
+         * @return Sljedeći zapis bez završnog kraja reda, ili `null` na kraju ulaza.
+         * @throws IOException Ako čitanje ne uspije.
+         */
+        String sljedeci() throws IOException {
+            zapis.setLength(0);
+            boolean uNavodnicima = false;
+            boolean procitano = false;
+            while (true) {
+                if (pozicija == kraj && !napuni()) {
+                    return procitano ? zapis.toString() : null;
+                }
+                procitano = true;
+                int pocetak = pozicija;
+                while (pozicija < kraj) {
+                    char c = bafer[pozicija];
+                    if (c == '"') {
+                        uNavodnicima = !uNavodnicima; // Udvojeni navodnik ga mijenja dva puta
+                    } else if (!uNavodnicima && (c == '\n' || c == '\r')) {
+                        zapis.append(bafer, pocetak, pozicija - pocetak);
+                        pozicija++;
+                        if (c == '\r' && (pozicija < kraj || napuni()) && bafer[pozicija] == '\n') pozicija++;
+                        return zapis.toString();
+                    }
+                    pozicija++;
+                }
+                zapis.append(bafer, pocetak, pozicija - pocetak);
+            }
+        }
+
+        private boolean napuni() throws IOException {
+            int n = ulaz.read(bafer);
+            pozicija = 0;
+            kraj = Math.max(0, n);
+            return n > 0;
+        }
+    }
+
+    /**
+     * Broji obrađene redove i jednom u sekundi ispisuje napredak na standardnu grešku.
+     */
+    private static final class Napredak {
+        private final String opis;
+        private final long pocetak = System.nanoTime();
+        private long zadnjiIspis = pocetak;
+        private long redova;
+
+        Napredak(String opis) {
+            this.opis = opis;
+        }
+
+        void red() {
+            redova(1);
+        }
+
+        void redova(int broj) {
+            redova += broj;
+            long sada = System.nanoTime();
+            if (sada - zadnjiIspis >= 1_000_000_000L) {
+                zadnjiIspis = sada;
+                ispisi(sada, '\r');
+            }
+        }
+
+        void kraj() {
+            ispisi(System.nanoTime(), '\n');
+        }
+
+        long getRedova() {
+            return redova;
+        }
+
+        private void ispisi(long sada, char kraj) {
+            double sekunde = Math.max(1e-9, (sada - pocetak) / 1e9);
+            System.err.printf("%s %,d redova (%,.0f redova/s)%c", opis, redova, redova / sekunde, kraj);
+        }
+    }
+}
@@ -3,9 +3,11 @@ package interfejs;
 
 import java.awt.*;
 import java.awt.event.*;
-import java.sql.*;
 import javax.swing.*;
+import baza.BazaPodataka;
 import logika.Logika2048;
+import logika.Savjetnik;
+import metrika.MjerenjeStarta;
 
 /**
  * Klasa koja implementira grafičko korisničko sučelje za igru 2048.
@@ -47,6 +49,30 @@ public class IgricaGUI {
     /** Veličina igrališta. */
     private int size;
 
+    /** CPU budžet jedne pretrage za savjet (milisekunde, zbir za sve niti). */
+    private static final long HINT_BUDGET_MS = 300;
+
+    /** Broj nasumičnih poteza u simulaciji nakon procjenjivanog poteza. */
+    private static final int HINT_DEPTH = 12;
+
+    /** Nazivi smjerova za savjet, redom kao konstante u `Logika2048`. */
+    private static final String[] DIRECTION_NAMES = {"gore", "lijevo", "dolje", "desno"};
+
+    /** Pozadinska pretraga za savjet. */
+    private final Savjetnik advisor = new Savjetnik(HINT_BUDGET_MS, HINT_DEPTH);
+
+    /** Dugme koje uključuje savjete. */
+    private JToggleButton hintButton;
+
+    /** Labela za prikaz savjeta. */
+    private JLabel hintLabel;
+
+    /** Pomoćni niz za kopiju ploče pri pokretanju pretrage. */
+    private int[] hintCells;
+
+    /** Broj pokrenutih pretraga; savjet stare pozicije se ne prikazuje. */
+    private int hintRequest;
+
     /**
      * Konstruktor klase koji inicijalizira grafički interfejs igre.
      * Postavlja elemente sučelja, događaje i ažurira ploču.
@@ -88,22 +114,47 @@ public class IgricaGUI {
 
         frame.add(boardPanel, BorderLayout.CENTER);
 
-        // Kreira dugmad za čuvanje i učitavanje igre
-        JPanel buttonPanel = new JPanel(new GridLayout(1, 2, 10, 10));
+        // Kreira dugmad za čuvanje i učitavanje igre i za savjet
+        JPanel buttonPanel = new JPanel(new GridLayout(1, 3, 10, 10));
         JButton saveButton = new JButton("Save Game");
         JButton loadButton = new JButton("Load Game");
+        hintButton = new JToggleButton("Hint");
+        hintButton.setFocusable(false); // Tipke W, A, S, D ostaju vezane za prozor
 
         saveButton.addActionListener(e -> saveGame());
         loadButton.addActionListener(e -> loadGame());
+        hintButton.addActionListener(e -> {
+            if (hintButton.isSelected()) {
+                requestHint();
+            } else {
+                advisor.otkazi();
+                hintRequest++;
+                hintLabel.setText(" ");
+            }
+        });
 
         buttonPanel.add(saveButton);
         buttonPanel.add(loadButton);
+        buttonPanel.add(hintButton);
+
+        hintLabel = new JLabel(" ", SwingConstants.CENTER);
+        hintLabel.setFont(new Font("Arial", Font.PLAIN, 16));
+        hintCells = new int[size * size];
 
-        frame.add(buttonPanel, BorderLayout.SOUTH);
+        JPanel southPanel = new JPanel(new BorderLayout(0, 5));
+        southPanel.add(hintLabel, BorderLayout.NORTH);
+        southPanel.add(buttonPanel, BorderLayout.CENTER);
+        frame.add(southPanel, BorderLayout.SOUTH);
 
         configureKeyBindings(); // Postavlja događaje za strelice
         updateBoard(); // Ažurira prikaz ploče
         frame.setFocusable(true);
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                MjerenjeStarta.prikazan("igra");
+            }
+        });
         frame.setVisible(true);
     }
 
@@ -119,45 +170,32 @@ public class IgricaGUI {
         inputMap.put(KeyStroke.getKeyStroke("S"), "moveDown");
         inputMap.put(KeyStroke.getKeyStroke("D"), "moveRight");
 
-        actionMap.put("moveUp", new AbstractAction() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                if (game.isValidMove("w")) {
-                    game.makeMove("w");
-                    updateBoard();
-                }
-            }
-        });
-
-        actionMap.put("moveLeft", new AbstractAction() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                if (game.isValidMove("a")) {
-                    game.makeMove("a");
-                    updateBoard();
-                }
-            }
-        });
-
-        actionMap.put("moveDown", new AbstractAction() {
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                if (game.isValidMove("s")) {
-                    game.makeMove("s");
-                    updateBoard();
-                }
-            }
-        });
+        actionMap.put("moveUp", moveAction("w", Logika2048.UP));
+        actionMap.put("moveLeft", moveAction("a", Logika2048.LEFT));
+        actionMap.put("moveDown", moveAction("s", Logika2048.DOWN));
+        actionMap.put("moveRight", moveAction("d", Logika2048.RIGHT));
+    }
 
-        actionMap.put("moveRight", new AbstractAction() {
+    /**
+     * Kreira akciju koja izvršava potez i osvježava prikaz. Trajanje od tipke do
+     * osvježenog prikaza se mjeri za prvi potez (vidi `MjerenjeStarta`).
+     *
+     * @param move Unos poteza ("w", "a", "s", "d").
+     * @param direction Odgovarajući smjer iz `Logika2048`.
+     * @return Akcija za tipku.
+     */
+    private Action moveAction(String move, int direction) {
+        return new AbstractAction() {
             @Override
             public void actionPerformed(ActionEvent e) {
-                if (game.isValidMove("d")) {
-                    game.makeMove("d");
+                if (game.isValidMove(move) && game.isLegal(direction)) {
+                    long start = System.nanoTime();
+                    game.makeMove(move);
                     updateBoard();
+                    MjerenjeStarta.potez(System.nanoTime() - start);
                 }
             }
-        });
+        };
     }
 
     /**
@@ -175,11 +213,35 @@ public class IgricaGUI {
         }
         scoreLabel.setText("Score: " + game.getScore());
 
+        if (hintButton.isSelected()) {
+            requestHint(); // Nova pozicija poništava pretragu za prethodnu
+        }
         if (game.isGameOver()) {
+            advisor.otkazi();
             gameOver();
         }
     }
 
+    /**
+     * Pokreće pozadinsku pretragu za trenutnu poziciju. Savjet se prikazuje na niti
+     * događaja kada je gotov, osim ako se u međuvremenu pozicija promijenila.
+     */
+    private void requestHint() {
+        int request = ++hintRequest;
+        if (game.legalMoves() == 0) {
+            advisor.otkazi();
+            hintLabel.setText("Savjet: nema mogućih poteza");
+            return;
+        }
+        hintLabel.setText("Savjet: računam...");
+        game.copyCells(hintCells);
+        advisor.trazi(hintCells, size, hint -> SwingUtilities.invokeLater(() -> {
+            if (request != hintRequest || !hintButton.isSelected()) return;
+            hintLabel.setText(String.format("Savjet: %s (≈ %.0f bodova, %d simulacija)",
+                    DIRECTION_NAMES[hint.getSmjer()], hint.getOcjena(hint.getSmjer()), hint.getSimulacija()));
+        }));
+    }
+
     /**
      * Prikazuje poruku o završetku igre i omogućava ponovno pokretanje.
      */
@@ -202,20 +264,8 @@ public class IgricaGUI {
      * @param name Ime igrača.
      */
     private void storeHighScore(String name) {
-        String url = "jdbc:mysql://bazepodataka.ba:7306/student391IT";
-        String username = "student391IT";
-        String password = "10948";
-
-        try (Connection connection = DriverManager.getConnection(url, username, password)) {
-            String query = "INSERT INTO highscore (ime, skor) VALUES (?, ?)";
-            try (PreparedStatement statement = connection.prepareStatement(query)) {
-                statement.setString(1, name);
-                statement.setInt(2, game.getScore());
-                statement.executeUpdate();
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
+        // JDBC se učitava tek ovdje, pri prvom spremanju rezultata
+        BazaPodataka.spremiRezultat(name, game.getScore());
     }
 
     /**
@@ -261,7 +311,7 @@ public class IgricaGUI {
      * @param value Vrijednost pločice.
      * @return Boja pločice.
      */
-    private Color getTileColor(int value) {
+    static Color getTileColor(int value) {
         if (value == 0) return TILE_COLORS[0];
         int index = (int) (Math.log(value) / Math.log(2));
         return index < TILE_COLORS.length ? TILE_COLORS[index] : TILE_COLORS[TILE_COLORS.length - 1];
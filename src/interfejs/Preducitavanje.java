@@ -0,0 +1,68 @@
+package interfejs;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import logika.Logika2048;
+import metrika.MetrikeIgre;
+
+/**
+ * Klasa `Preducitavanje` učitava i inicijalizuje klase igre u pozadinskoj niti dok je
+ * otvoren dijalog za unos veličine ploče, da prvi prikaz igre i prvi potez ne čekaju na
+ * učitavanje klasa, registraciju metrika i JIT.
+ *
+ * Zagrijavanje koristi statičke metode `Logika2048` koje ne bilježe metrike, pa brojači
+ * poteza ostaju čisti.
+ */
+public final class Preducitavanje {
+
+    /** Klase koje se učitavaju i inicijalizuju unaprijed. */
+    private static final String[] KLASE = {
+        "logika.Logika2048",
+        "metrika.PotezEvent",
+        "metrika.NovaPlocicaEvent",
+        "metrika.SpremanjeEvent",
+        "interfejs.IgricaGUI",
+    };
+
+    private static final AtomicBoolean POKRENUTO = new AtomicBoolean();
+
+    private Preducitavanje() {
+    }
+
+    /**
+     * Pokreće predučitavanje u pozadinskoj niti (samo pri prvom pozivu).
+     */
+    public static void pokreni() {
+        if (!POKRENUTO.compareAndSet(false, true)) return;
+        Thread nit = new Thread(Preducitavanje::izvrsi, "preducitavanje");
+        nit.setDaemon(true);
+        nit.setPriority(Thread.MIN_PRIORITY);
+        nit.start();
+    }
+
+    /**
+     * Učitava klase, registruje metrike i zagrijava potez; izvršava se u pozivajućoj niti.
+     */
+    public static void izvrsi() {
+        long start = System.nanoTime();
+        ClassLoader loader = Preducitavanje.class.getClassLoader();
+        for (String klasa : KLASE) {
+            try {
+                Class.forName(klasa, true, loader);
+            } catch (ClassNotFoundException e) {
+                System.err.println("Predučitavanje: klasa nije pronađena: " + klasa);
+            }
+        }
+        MetrikeIgre.get(); // Registracija MBean-a pokreće JMX, što je sporo pri prvom potezu
+
+        int velicina = 4;
+        int[] ploca = new int[velicina * velicina];
+        for (int i = 0; i < 2_000; i++) {
+            for (int j = 0; j < ploca.length; j++) {
+                ploca[j] = (i + j) % 3 == 0 ? 0 : 2 << ((i * 7 + j) % 4);
+            }
+            Logika2048.legalMoves(ploca, velicina);
+            Logika2048.applyMove(ploca, velicina, i & 3);
+        }
+        System.out.printf("Predučitavanje završeno za %.1f ms%n", (System.nanoTime() - start) / 1e6);
+    }
+}
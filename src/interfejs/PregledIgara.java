@@ -0,0 +1,409 @@
+package interfejs;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import javax.swing.JComponent;
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+import javax.swing.WindowConstants;
+import logika.Logika2048;
+import logika.SnimakPloce;
+
+/**
+ * Klasa `PregledIgara` prikazuje mnogo igara odjednom u jednoj komponenti, svaku u svom polju
+ * mreže. Umjesto prozora `IgricaGUI` sa labelom za svaku pločicu, jedna nit niskog prioriteta
+ * crta sve ploče u zajednički bafer slike, najviše zadani broj puta u sekundi, a komponenta
+ * na niti događaja samo kopira promijenjeni dio bafera na ekran.
+ *
+ * Nit crtanja čita igre preko {@link Logika2048#getVersion()} i {@link Logika2048#snapshot()},
+ * koji nikad ne blokiraju nit koja igra, pa prikaz ne usporava simulaciju. Polje se ponovo
+ * crta samo ako se verzija igre promijenila od zadnjeg okvira ili je igra zamijenjena novom.
+ */
+public class PregledIgara extends JComponent {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Boja pozadine između polja. */
+    private static final Color POZADINA = new Color(0xFAF8EF);
+
+    /** Boja okvira ploče (kao u `IgricaGUI`). */
+    private static final Color OKVIR = new Color(0xBBADA0);
+
+    /** Najmanja stranica pločice u pikselima na kojoj se ispisuje vrijednost. */
+    private static final int NAJMANJA_ZA_TEKST = 14;
+
+    /** Najmanja stranica polja u pikselima na kojoj se ispisuje rezultat. */
+    private static final int NAJMANJE_ZA_REZULTAT = 64;
+
+    private final AtomicReferenceArray<Logika2048> igre;
+    private final long periodNanos;
+
+    /** Bafer sa svim poljima; mijenja ga nit crtanja, a čita nit događaja (oboje pod bravom). */
+    private final transient Object bravaBafera = new Object();
+    private transient BufferedImage bafer;
+
+    /** Grafika bafera (koristi samo nit crtanja). */
+    private transient Graphics2D grafika;
+
+    /** Igra i verzija nacrtana u svakom polju (koristi samo nit crtanja). */
+    private final transient Logika2048[] nacrtane;
+    private final transient long[] verzije;
+
+    /** Raspored polja za trenutni bafer (koristi samo nit crtanja). */
+    private transient int kolona;
+    private transient int stranica;
+    private transient Font fontRezultata;
+    private transient Font fontPlocice;
+
+    /** Veličina komponente; postavlja je nit događaja, a čita nit crtanja. */
+    private transient volatile int sirinaPrikaza;
+    private transient volatile int visinaPrikaza;
+
+    private final AtomicLong okvira = new AtomicLong();
+    private final AtomicLong nacrtanihPolja = new AtomicLong();
+    private transient volatile Thread nit;
+
+    /**
+     * Kreira pregled sa praznim poljima.
+     *
+     * @param brojIgara Broj polja mreže.
+     * @param fps Najveći broj okvira u sekundi.
+     */
+    public PregledIgara(int brojIgara, int fps) {
+        if (brojIgara < 1 || fps < 1) throw new IllegalArgumentException("Broj igara i FPS moraju biti pozitivni.");
+        this.igre = new AtomicReferenceArray<>(brojIgara);
+        this.nacrtane = new Logika2048[brojIgara];
+        this.verzije = new long[brojIgara];
+        this.periodNanos = 1_000_000_000L / fps;
+        setOpaque(true);
+        setPreferredSize(new Dimension(1200, 800));
+        addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                sirinaPrikaza = getWidth();
+                visinaPrikaza = getHeight();
+            }
+        });
+    }
+
+    /**
+     * Postavlja igru u polje; može se pozvati iz bilo koje niti (npr. kada simulacija počne novu igru).
+     *
+     * @param indeks Indeks polja.
+     * @param igra Igra ili `null` za prazno polje.
+     */
+    public void postaviIgru(int indeks, Logika2048 igra) {
+        igre.set(indeks, igra);
+    }
+
+    /**
+     * @return Broj polja mreže.
+     */
+    public int getBrojIgara() {
+        return igre.length();
+    }
+
+    /**
+     * @return Broj okvira od pokretanja.
+     */
+    public long getOkvira() {
+        return okvira.get();
+    }
+
+    /**
+     * @return Broj ponovo nacrtanih polja od pokretanja (nepromijenjena polja se ne broje).
+     */
+    public long getNacrtanihPolja() {
+        return nacrtanihPolja.get();
+    }
+
+    /**
+     * Pokreće nit crtanja (samo ako već ne radi).
+     */
+    public synchronized void pokreni() {
+        if (nit != null) return;
+        nit = new Thread(this::crtaj, "pregled-igara");
+        nit.setDaemon(true);
+        nit.setPriority(Thread.MIN_PRIORITY);
+        nit.start();
+    }
+
+    /**
+     * Zaustavlja nit crtanja.
+     */
+    public synchronized void zaustavi() {
+        Thread stara = nit;
+        nit = null;
+        if (stara != null) LockSupport.unpark(stara);
+    }
+
+    /**
+     * Crta okvire u zadanom ritmu dok se nit ne zaustavi.
+     */
+    private void crtaj() {
+        Thread ova = Thread.currentThread();
+        long sljedeci = System.nanoTime();
+        while (nit == ova) {
+            nacrtajOkvir();
+            sljedeci += periodNanos;
+            long cekanje = sljedeci - System.nanoTime();
+            if (cekanje > 0) {
+                LockSupport.parkNanos(cekanje);
+            } else {
+                sljedeci = System.nanoTime(); // Okvir je kasnio: ne pokušavati nadoknaditi
+            }
+        }
+    }
+
+    /**
+     * Crta promijenjena polja u bafer i traži od niti događaja da prikaže promijenjeni dio.
+     */
+    void nacrtajOkvir() {
+        // getWidth/getHeight se ne čitaju van niti događaja
+        int sirina = sirinaPrikaza;
+        int visina = visinaPrikaza;
+        if (sirina <= 0 || visina <= 0) return;
+        if (bafer == null || bafer.getWidth() != sirina || bafer.getHeight() != visina) {
+            rasporedi(sirina, visina);
+        }
+        int lijevo = Integer.MAX_VALUE;
+        int gore = Integer.MAX_VALUE;
+        int desno = 0;
+        int dolje = 0;
+        long nacrtano = 0;
+        for (int i = 0; i < nacrtane.length; i++) {
+            Logika2048 igra = igre.get(i);
+            if (igra == nacrtane[i] && (igra == null || igra.getVersion() == verzije[i])) continue;
+            SnimakPloce snimak = igra == null ? null : igra.snapshot();
+            int x = (i % kolona) * stranica;
+            int y = (i / kolona) * stranica;
+            synchronized (bravaBafera) {
+                nacrtajPolje(grafika, x, y, snimak);
+            }
+            nacrtane[i] = igra;
+            verzije[i] = snimak == null ? 0 : snimak.getVerzija();
+            lijevo = Math.min(lijevo, x);
+            gore = Math.min(gore, y);
+            desno = Math.max(desno, x + stranica);
+            dolje = Math.max(dolje, y + stranica);
+            nacrtano++;
+        }
+        okvira.incrementAndGet();
+        if (nacrtano > 0) {
+            nacrtanihPolja.addAndGet(nacrtano);
+            repaint(lijevo, gore, desno - lijevo, dolje - gore);
+        }
+    }
+
+    /**
+     * Bira broj kolona sa najvećim kvadratnim poljem za zadanu površinu, pravi novi bafer
+     * i označava sva polja za crtanje.
+     */
+    private void rasporedi(int sirina, int visina) {
+        int broj = nacrtane.length;
+        int najboljaStranica = 0;
+        int najboljeKolona = 1;
+        for (int k = 1; k <= broj; k++) {
+            int redova = (broj + k - 1) / k;
+            int s = Math.min(sirina / k, visina / redova);
+            if (s > najboljaStranica) {
+                najboljaStranica = s;
+                najboljeKolona = k;
+            }
+        }
+        kolona = najboljeKolona;
+        stranica = Math.max(1, najboljaStranica);
+        fontRezultata = new Font("Arial", Font.PLAIN, Math.max(9, stranica / 12));
+        BufferedImage novi = new BufferedImage(sirina, visina, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = novi.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setColor(POZADINA);
+        g.fillRect(0, 0, sirina, visina);
+        synchronized (bravaBafera) {
+            if (grafika != null) grafika.dispose();
+            bafer = novi;
+            grafika = g;
+        }
+        // Novi bafer izgleda kao prazna polja, pa se ponovo crtaju samo polja sa igrom
+        Arrays.fill(nacrtane, null);
+    }
+
+    /**
+     * Crta jednu ploču i njen rezultat u polje bafera.
+     */
+    private void nacrtajPolje(Graphics2D g, int x, int y, SnimakPloce snimak) {
+        g.setColor(POZADINA);
+        g.fillRect(x, y, stranica, stranica);
+        if (snimak == null) return;
+
+        int razmak = Math.max(1, stranica / 40);
+        int zaglavlje = 0;
+        if (stranica >= NAJMANJE_ZA_REZULTAT) {
+            g.setFont(fontRezultata);
+            g.setColor(Color.DARK_GRAY);
+            FontMetrics metrike = g.getFontMetrics();
+            zaglavlje = metrike.getHeight();
+            g.drawString(Integer.toString(snimak.getRezultat()), x + razmak, y + metrike.getAscent());
+        }
+        int ploca = Math.min(stranica, stranica - zaglavlje) - 2 * razmak;
+        int px = x + (stranica - ploca) / 2;
+        int py = y + zaglavlje + razmak;
+        g.setColor(OKVIR);
+        g.fillRect(px, py, ploca, ploca);
+
+        int velicina = snimak.getVelicina();
+        int celija = ploca / velicina;
+        int plocica = Math.max(1, celija - razmak);
+        Font font = plocica >= NAJMANJA_ZA_TEKST ? fontPlocice(Math.max(8, plocica * 2 / 5)) : null;
+        for (int red = 0; red < velicina; red++) {
+            for (int kol = 0; kol < velicina; kol++) {
+                int vrijednost = snimak.get(red, kol);
+                int tx = px + kol * celija + razmak / 2;
+                int ty = py + red * celija + razmak / 2;
+                g.setColor(IgricaGUI.getTileColor(vrijednost));
+                g.fillRect(tx, ty, plocica, plocica);
+                if (font != null && vrijednost != 0) {
+                    String tekst = Integer.toString(vrijednost);
+                    g.setFont(font);
+                    FontMetrics metrike = g.getFontMetrics();
+                    if (metrike.stringWidth(tekst) > plocica) {
+                        g.setFont(font.deriveFont(font.getSize2D() * plocica / metrike.stringWidth(tekst)));
+                        metrike = g.getFontMetrics();
+                    }
+                    g.setColor(vrijednost <= 4 ? Color.DARK_GRAY : Color.WHITE);
+                    g.drawString(tekst, tx + (plocica - metrike.stringWidth(tekst)) / 2,
+                            ty + (plocica - metrike.getHeight()) / 2 + metrike.getAscent());
+                }
+            }
+        }
+    }
+
+    private Font fontPlocice(int velicina) {
+        if (fontPlocice == null || fontPlocice.getSize() != velicina) {
+            fontPlocice = new Font("Arial", Font.BOLD, velicina);
+        }
+        return fontPlocice;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        synchronized (bravaBafera) {
+            if (bafer != null) {
+                g.drawImage(bafer, 0, 0, null);
+                return;
+            }
+        }
+        g.setColor(POZADINA);
+        g.fillRect(0, 0, getWidth(), getHeight());
+    }
+
+    /**
+     * Automatska igra sa pregledom: niti simulacije igraju nasumične moguće poteze u svim
+     * igrama i počinju novu igru kada je prethodna završena. Jednom u sekundi ispisuje broj
+     * poteza simulacije, okvira i ponovo nacrtanih polja.
+     *
+     * Pokretanje: {@code java interfejs.PregledIgara [broj igara] [veličina] [fps] [niti] [pauza ms]}
+     * (podrazumijevano 100, 4, 30, broj procesora i 0).
+     *
+     * @param args Argumenti komandne linije.
+     * @throws InterruptedException Ako je glavna nit prekinuta.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int brojIgara = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int velicina = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int fps = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        int niti = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+        long pauza = args.length > 4 ? Long.parseLong(args[4]) : 0;
+
+        PregledIgara pregled = new PregledIgara(brojIgara, fps);
+        for (int i = 0; i < brojIgara; i++) {
+            pregled.postaviIgru(i, new Logika2048(velicina, false));
+        }
+        if (GraphicsEnvironment.isHeadless()) {
+            pregled.setSize(pregled.getPreferredSize()); // Bez ekrana: crta se samo u bafer
+        } else {
+            SwingUtilities.invokeLater(() -> {
+                JFrame prozor = new JFrame("2048 - " + brojIgara + " igara");
+                prozor.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
+                prozor.add(pregled);
+                prozor.pack();
+                prozor.setLocationRelativeTo(null);
+                prozor.setVisible(true);
+            });
+        }
+        pregled.pokreni();
+
+        AtomicLong poteza = new AtomicLong();
+        for (int n = 0; n < niti; n++) {
+            int prvi = n;
+            Thread simulacija = new Thread(() -> igraj(pregled, velicina, prvi, niti, pauza, poteza), "autoigra-" + n);
+            simulacija.setDaemon(true);
+            simulacija.start();
+        }
+        long prethodnoPoteza = 0;
+        long prethodnoOkvira = 0;
+        long prethodnoPolja = 0;
+        while (true) {
+            Thread.sleep(1000);
+            long p = poteza.get();
+            long o = pregled.getOkvira();
+            long c = pregled.getNacrtanihPolja();
+            System.out.printf("%,d poteza/s, %d okvira/s, %,d nacrtanih polja/s%n",
+                    p - prethodnoPoteza, o - prethodnoOkvira, c - prethodnoPolja);
+            prethodnoPoteza = p;
+            prethodnoOkvira = o;
+            prethodnoPolja = c;
+        }
+    }
+
+    /**
+     * Igra nasumične poteze u igrama {@code prvi}, {@code prvi + korak}, ...
+     */
+    private static void igraj(PregledIgara pregled, int velicina, int prvi, int korak, long pauza, AtomicLong poteza) {
+        SplittableRandom random = new SplittableRandom(prvi);
+        Logika2048[] moje = new Logika2048[(pregled.getBrojIgara() - prvi + korak - 1) / korak];
+        for (int j = 0; j < moje.length; j++) {
+            moje[j] = pregled.igre.get(prvi + j * korak);
+        }
+        while (true) {
+            int odigrano = 0;
+            for (int j = 0; j < moje.length; j++) {
+                Logika2048 igra = moje[j];
+                int maska = igra.legalMoves();
+                if (maska == 0 || igra.isGameOver()) {
+                    moje[j] = new Logika2048(velicina, false);
+                    pregled.postaviIgru(prvi + j * korak, moje[j]);
+                    continue;
+                }
+                int izbor = random.nextInt(Integer.bitCount(maska));
+                for (; izbor > 0; izbor--) {
+                    maska &= maska - 1;
+                }
+                igra.move(Integer.numberOfTrailingZeros(maska));
+                odigrano++;
+            }
+            poteza.addAndGet(odigrano);
+            if (pauza > 0) {
+                try {
+                    Thread.sleep(pauza);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -5,6 +5,9 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import metrika.MjerenjeStarta;
 
 /**
  * Klasa `Prijava` omogućava unos dimenzija ploče i početak igre 2048.
@@ -41,6 +44,9 @@ public class Prijava extends JFrame {
         zapocni.addActionListener(new ActionListener() {
             @Override
             public void actionPerformed(ActionEvent e) {
+                // Dok je dijalog otvoren, klase igre se učitavaju u pozadini
+                Preducitavanje.pokreni();
+
                 // Ovdje se traži unos dimenzija ploče
                 String input = JOptionPane.showInputDialog(
                     Prijava.this,
@@ -79,6 +85,12 @@ public class Prijava extends JFrame {
 
         // Dodaje panel u glavni prozor
         add(mainPanel, BorderLayout.CENTER);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowOpened(WindowEvent e) {
+                MjerenjeStarta.prikazan("prijava");
+            }
+        });
         setVisible(true);  // Čini prozor vidljivim
     }
 
@@ -15,6 +15,7 @@ import javax.swing.JScrollPane;
 import javax.swing.JTextArea;
 
 import baza.BazaPodataka;
+import metrika.JdbcEvent;
 
 /**
  * Klasa koja prikazuje listu najboljih rezultata (highscore) iz baze podataka.
@@ -78,6 +79,10 @@ public class PrikaziHighscore extends JFrame {
         // Konekcija sa bazom podataka
         Connection connection = BazaPodataka.connect();
         if (connection != null) {
+            JdbcEvent event = new JdbcEvent();
+            event.begin();
+            long redova = 0;
+            boolean uspjesno = false;
             try (Statement statement = connection.createStatement();
                  ResultSet resultSet = statement.executeQuery("SELECT * FROM highscore order by skor desc")) {
                 StringBuilder highscores = new StringBuilder();
@@ -87,12 +92,21 @@ public class PrikaziHighscore extends JFrame {
                               .append(": ")
                               .append(resultSet.getInt("skor")) // Njegov rezultat
                               .append("\n");
+                    redova++;
                 }
+                uspjesno = true;
                 // Prikaz u tekstualnom polju
                 highscoreArea.setText(highscores.toString());
             } catch (SQLException e) {
                 // Greška prilikom učitavanja
                 JOptionPane.showMessageDialog(this, "Greška pri učitavanju visoko skora: " + e.getMessage(), "Greška", JOptionPane.ERROR_MESSAGE);
+            } finally {
+                if (event.shouldCommit()) {
+                    event.operacija = "citanje highscore";
+                    event.redova = redova;
+                    event.uspjesno = uspjesno;
+                    event.commit();
+                }
             }
         }
     }
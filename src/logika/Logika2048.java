@@ -2,36 +2,198 @@ package logika;
 
 import interfejs.GameInterface;
 import java.io.*;
+import metrika.MetrikeIgre;
+import metrika.NovaPlocicaEvent;
+import metrika.PotezEvent;
+import metrika.SpremanjeEvent;
 import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.StampedLock;
 
 /**
  * Klasa `Logika2048` implementira logiku igre 2048 koristeći interfejs `GameInterface`.
  * Ona sadrži sve funkcionalnosti potrebne za igru kao što su generisanje pločica, provjera validnosti poteza, 
  * pomjeranje pločica, i čuvanje stanja igre u datoteku.
+ *
+ * Igru mijenja jedna nit (nit događaja, sesija servera). Ostale niti (prikaz, automatsko
+ * spremanje, savjetnik, posmatrači) čitaju je preko {@link #snapshot()}: svaka izmjena ploče
+ * se izvršava pod bravom za pisanje `StampedLock`-a, a čitaoci kopiraju ploču optimistički
+ * (kao seqlock) i ponavljaju kopiranje ako se u međuvremenu desila izmjena. Čitaoci nikad ne
+ * blokiraju igru, a igra kopira ploču samo kada neko zatraži snimak.
  */
 public class Logika2048 implements GameInterface {
     private int SIZE; // Dimenzija ploče igre
-    private int[][] board; // Pločica
+    private int[] cells; // Pločice u jednom nizu, red po red (indeks = red * SIZE + kolona)
     private int score; // Trenutni rezultat igre
+    private boolean verbose = true; // Ispis poruka u konzolu
+    private final Random random; // Generator za nove pločice
+    private final StampedLock lock = new StampedLock(); // Brava za izmjene ploče (čitaoci su optimistični)
+    private volatile long version; // Broj izmjena ploče, raste pod bravom za pisanje
+    private volatile SnimakPloce snapshot; // Zadnji napravljeni snimak, dijele ga svi čitaoci
+
+    /** Smjerovi poteza, redom kao unosi 'w', 'a', 's', 'd'. */
+    public static final int UP = 0;
+    public static final int LEFT = 1;
+    public static final int DOWN = 2;
+    public static final int RIGHT = 3;
+
+    /** Unosi poteza po smjeru (za ispis i JFR događaje). */
+    private static final String[] MOVE_KEYS = {"w", "a", "s", "d"};
+
+    /** Najmanji broj linija u traci paralelnog poteza. */
+    private static final int MIN_STRIPE = 16;
+
+    /** Broj susjednih kolona koje se pri vertikalnom potezu obrađuju zajedno (32 int = dvije keš linije). */
+    private static final int BLOCK = 32;
+
+    /** Veličina ploče od koje se potezi izvršavaju paralelno (podesivo). */
+    private static volatile int parallelThreshold = 256;
+
+    /** Veličina ploče od koje se vertikalni potezi izvode po blokovima kolona (podesivo). */
+    private static volatile int blockedThreshold = 64;
 
     /**
      * Konstruktor inicijalizira ploču igre i dodaje dvije nasumične pločice.
      */
     public Logika2048(int size) {
+        this(size, true);
+    }
+
+    /**
+     * Konstruktor za igre bez ispisa u konzolu (server, simulacije).
+     *
+     * @param size Dimenzija ploče.
+     * @param verbose `true` za ispis poruka u konzolu.
+     */
+    public Logika2048(int size, boolean verbose) {
+        this(size, verbose, new Random());
+    }
+
+    /**
+     * Konstruktor sa zadanim sjemenom generatora novih pločica: ista veličina, sjeme i
+     * niz poteza uvijek daju istu igru (npr. za ponovljive simulacije).
+     *
+     * @param size Dimenzija ploče.
+     * @param verbose `true` za ispis poruka u konzolu.
+     * @param seed Sjeme generatora novih pločica.
+     */
+    public Logika2048(int size, boolean verbose, long seed) {
+        this(size, verbose, new Random(seed));
+    }
+
+    private Logika2048(int size, boolean verbose, Random random) {
+        this.random = random;
+        this.verbose = verbose;
         this.SIZE = size; // Postavite veličinu ploče prema korisničkom unosu
-        board = new int[SIZE][SIZE]; // Inicijalizacija ploče prema novoj veličini
+        cells = new int[SIZE * SIZE]; // Inicijalizacija ploče prema novoj veličini
         score = 0;
         spawnRandomTile();
         spawnRandomTile();
     }
 
     /**
-     * Vraća trenutnu ploču igre.
+     * Konstruktor koji obnavlja ranije sačuvano stanje (npr. hiberniranu sesiju), bez novih
+     * pločica i bez ispisa u konzolu.
+     *
+     * @param size Dimenzija ploče.
+     * @param values Pločice red po red (kopiraju se), dužine size * size.
+     * @param score Rezultat igre.
+     */
+    public Logika2048(int size, int[] values, int score) {
+        if (values.length != size * size) {
+            throw new IllegalArgumentException("Očekuje se " + size * size + " pločica, a dato je " + values.length);
+        }
+        this.random = new Random();
+        this.verbose = false;
+        this.SIZE = size;
+        this.cells = values.clone();
+        this.score = score;
+    }
+
+    /**
+     * Vraća kopiju trenutne ploče igre. Ploča se interno čuva kao jedan niz,
+     * pa izmjene vraćenog niza ne utiču na igru. Sigurno je pozvati iz bilo koje niti.
      *
      * @return Dvodimenzionalni niz koji predstavlja stanje ploče igre.
      */
     public int[][] getBoard() {
-        return board;
+        return snapshot().getBoard();
+    }
+
+    /**
+     * Kopira pločice red po red u zadani niz, bez alociranja nove ploče. Sigurno je pozvati
+     * iz bilo koje niti: kopija se ponavlja dok se ne dobije ploča bez istovremene izmjene.
+     *
+     * @param dst Odredišni niz dužine najmanje SIZE * SIZE.
+     */
+    public void copyCells(int[] dst) {
+        for (int attempt = 0; ; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                System.arraycopy(cells, 0, dst, 0, SIZE * SIZE);
+                if (lock.validate(stamp)) return;
+            }
+            backOff(attempt);
+        }
+    }
+
+    /**
+     * Vraća nepromjenjiv snimak ploče, rezultata i verzije. Ako se ploča nije mijenjala od
+     * zadnjeg snimka, vraća se isti objekat. Sigurno je pozvati iz bilo koje niti, i nikad ne
+     * blokira nit koja igra.
+     *
+     * @return Snimak trenutnog stanja.
+     */
+    public SnimakPloce snapshot() {
+        for (int attempt = 0; ; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp != 0) {
+                long currentVersion = version;
+                SnimakPloce cached = snapshot;
+                if (cached != null && cached.getVerzija() == currentVersion && lock.validate(stamp)) {
+                    return cached;
+                }
+                int[] copy = new int[SIZE * SIZE];
+                System.arraycopy(cells, 0, copy, 0, copy.length);
+                int currentScore = score;
+                if (lock.validate(stamp)) {
+                    SnimakPloce fresh = new SnimakPloce(SIZE, copy, currentScore, currentVersion);
+                    if (cached == null || cached.getVerzija() < currentVersion) snapshot = fresh;
+                    return fresh;
+                }
+            }
+            backOff(attempt);
+        }
+    }
+
+    /**
+     * Vraća verziju ploče; raste sa svakom izmjenom, pa čitalac može preskočiti nepromijenjenu igru.
+     *
+     * @return Broj izmjena ploče od kreiranja igre.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Čekanje čitaoca dok igra mijenja ploču: prvo kratko vrtenje, zatim ustupanje procesora.
+     */
+    private static void backOff(int attempt) {
+        if (attempt < 16) {
+            Thread.onSpinWait();
+        } else {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Vraća dimenziju ploče igre.
+     *
+     * @return Broj redova (i kolona) ploče.
+     */
+    public int getSize() {
+        return SIZE;
     }
 
     /**
@@ -40,8 +202,9 @@ public class Logika2048 implements GameInterface {
     @Override
     public void printBoard() {
         System.out.println("Rezultat: " + score);
-        for (int[] row : board) {
-            for (int tile : row) {
+        for (int row = 0; row < SIZE; row++) {
+            for (int col = 0; col < SIZE; col++) {
+                int tile = cells[row * SIZE + col];
                 System.out.print((tile == 0 ? "-" : tile) + "\t"); // Prikazuje '-' za prazne pločice
             }
             System.out.println(); // Nova linija nakon svakog reda
@@ -56,12 +219,16 @@ public class Logika2048 implements GameInterface {
      */
     @Override
     public boolean isGameOver() {
-        if (hasTile2048()) { // Ako postoji pločica sa vrijednošću 2048, igra je pobijeđena
+        long start = System.nanoTime();
+        boolean won = hasTile2048();
+        // Igra je završena ako nijedan smjer ne mijenja ploču. Prazna maska znači punu ploču
+        // bez spajanja ili potpuno praznu ploču, a prazna ploča nije kraj igre.
+        boolean over = won || (legalMoves() == 0 && cells[0] != 0);
+        MetrikeIgre.get().provjeraKraja(System.nanoTime() - start);
+        if (won && verbose) { // Ako postoji pločica sa vrijednošću 2048, igra je pobijeđena
             System.out.println("Čestitamo! Dostigli ste pločicu 2048.");
-            return true;
         }
-        // Igra je završena ako nema praznih pločica i nijedna pločica se ne može spojiti
-        return !hasEmptyTile() && !canMergeTiles();
+        return over;
     }
 
     /**
@@ -82,35 +249,76 @@ public class Logika2048 implements GameInterface {
      */
     @Override
     public void makeMove(String move) {
-        int[][] prevBoard = deepCopyBoard(); // Pravljenje kopije ploče za poređenje
-        switch (move) {
-            case "w":
-                moveUp(); // Pomjeranje pločica prema gore
-                break;
-            case "a":
-                moveLeft(); // Pomjeranje pločica lijevo
-                break;
-            case "s":
-                moveDown(); // Pomjeranje pločica prema dolje
-                break;
-            case "d":
-                moveRight(); // Pomjeranje pločica desno
-                break;
-            default:
-                System.out.println("Neispravan potez. Koristite 'w', 'a', 's' ili 'd'.");
-                return;
+        int direction = directionOf(move);
+        if (direction < 0) {
+            System.out.println("Neispravan potez. Koristite 'w', 'a', 's' ili 'd'.");
+            return;
         }
         // Ako se ploča promijenila, dodaje novu nasumičnu pločicu i ispisuje stanje ploče
-        if (!boardsAreEqual(prevBoard, board)) {
-            spawnRandomTile();
+        if (move(direction) && verbose) {
             printBoard();
         }
         // Provjerava da li je igra završena nakon poteza
-        if (isGameOver()) {
+        if (isGameOver() && verbose) {
             System.out.println("Igra je završena!");
         }
     }
 
+    /**
+     * Izvršava potez i, ako se ploča promijenila, dodaje novu nasumičnu pločicu.
+     * Za razliku od {@link #makeMove(String)} ne provjerava kraj igre.
+     *
+     * @param direction Smjer poteza ({@link #UP}, {@link #LEFT}, {@link #DOWN}, {@link #RIGHT}).
+     * @return `true` ako se ploča promijenila, `false` inače.
+     */
+    public boolean move(int direction) {
+        PotezEvent event = new PotezEvent(); // Bez aktivnog JFR snimanja JIT uklanja događaj
+        event.begin();
+        long start = System.nanoTime();
+        int scoreBefore = score;
+        boolean changed;
+        long stamp = lock.writeLock();
+        try {
+            changed = slideLocked(direction);
+            if (changed) {
+                spawnRandomTile();
+                version++;
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        MetrikeIgre.get().potez(direction, System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.smjer = MOVE_KEYS[direction];
+            event.velicinaPloce = SIZE;
+            event.promjena = changed;
+            event.prirastRezultata = score - scoreBefore;
+            event.commit();
+        }
+        return changed;
+    }
+
+    /**
+     * Pretvara unos poteza u konstantu smjera.
+     *
+     * @param move Unos poteza ('w', 'a', 's', 'd').
+     * @return Konstanta smjera, ili -1 za neispravan unos.
+     */
+    public static int directionOf(String move) {
+        switch (move) {
+            case "w":
+                return UP; // Pomjeranje pločica prema gore
+            case "a":
+                return LEFT; // Pomjeranje pločica lijevo
+            case "s":
+                return DOWN; // Pomjeranje pločica prema dolje
+            case "d":
+                return RIGHT; // Pomjeranje pločica desno
+            default:
+                return -1;
+        }
+    }
+
     /**
      * Vraća trenutni rezultat igre.
      *
@@ -125,142 +333,326 @@ public class Logika2048 implements GameInterface {
      * Resetuje igru na početno stanje.
      */
     public void reset() {
-        board = new int[SIZE][SIZE]; // Resetuje ploču igre
-        score = 0; // Postavlja rezultat na 0
-        spawnRandomTile(); // Dodaje novu nasumičnu pločicu
-        spawnRandomTile();
-        System.out.println("Igra je resetovana.");
+        long stamp = lock.writeLock();
+        try {
+            cells = new int[SIZE * SIZE]; // Resetuje ploču igre
+            score = 0; // Postavlja rezultat na 0
+            spawnRandomTile(); // Dodaje novu nasumičnu pločicu
+            spawnRandomTile();
+            version++;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        if (verbose) System.out.println("Igra je resetovana.");
     }
 
     /**
-     * Pomjeranje pločica prema gore.
+     * Pomjera sve linije ploče u zadatom smjeru. Redovi (lijevo/desno) i kolone (gore/dolje)
+     * su međusobno nezavisni, pa se na velikim pločama dijele u trake koje se obrađuju
+     * paralelno na fork-join bazenu. Ispod praga {@link #getParallelThreshold()} potez se
+     * izvršava serijski na pozivajućoj niti.
+     *
+     * Kolona u ravnom nizu ima korak SIZE, pa bi vertikalni potez na velikoj ploči promašivao
+     * keš na skoro svakoj pločici. Zato se od praga {@link #getBlockedThreshold()} kolone
+     * pomjeraju u blokovima od po BLOCK susjednih kolona: ploča se prolazi red po red, a svaka
+     * kolona bloka čuva vlastiti cilj i pločicu za spajanje, pa se memorija čita sekvencijalno.
+     *
+     * @param direction Smjer poteza ({@link #UP}, {@link #LEFT}, {@link #DOWN}, {@link #RIGHT}).
+     * @return `true` ako se ploča promijenila, `false` inače.
      */
-    private void moveUp() {
-        for (int col = 0; col < SIZE; col++) {
-            int[] merged = new int[SIZE]; // Oznaka za praćenje spojenih pločica
-            int target = 0; // Ciljana pozicija za pomjeranje pločica
-            for (int row = 0; row < SIZE; row++) {
-                if (board[row][col] != 0) {
-                    if (target > 0 && board[target - 1][col] == board[row][col] && merged[target - 1] == 0) {
-                        board[target - 1][col] *= 2; // Spajanje pločica
-                        score += board[target - 1][col]; // Ažuriranje rezultata
-                        board[row][col] = 0; // Uklanjanje stare pločice
-                        merged[target - 1] = 1; // Oznaka da je pločica spojena
-                    } else {
-                        if (target != row) {
-                            board[target][col] = board[row][col]; // Pomjeranje pločice
-                            board[row][col] = 0;
-                        }
-                        target++;
-                    }
-                }
+    public boolean slide(int direction) {
+        long stamp = lock.writeLock();
+        try {
+            boolean changed = slideLocked(direction);
+            if (changed) version++;
+            return changed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Pomjera linije ploče; poziva se pod bravom za pisanje.
+     */
+    private boolean slideLocked(int direction) {
+        if (direction < UP || direction > RIGHT) {
+            throw new IllegalArgumentException("Nepoznat smjer: " + direction);
+        }
+        boolean blocked = (direction == UP || direction == DOWN) && SIZE >= blockedThreshold;
+        StripeTask task = new StripeTask(direction, blocked, 0, SIZE, stripeSize());
+        if (SIZE < parallelThreshold) {
+            task.slideRange(); // Mala ploča - fork-join bi samo dodao trošak, pa se ne dijeli
+        } else {
+            ForkJoinPool.commonPool().invoke(task);
+        }
+        score += task.scoreDelta;
+        return task.changed;
+    }
+
+    /**
+     * Izvršava potez nad pločom zadatom kao ravan niz, bez nove pločice, ispisa i paralelizma.
+     * Pravila pomjeranja i spajanja su ista kao u {@link #slide(int)}.
+     *
+     * @param cells Pločice red po red (mijenjaju se na mjestu).
+     * @param size Dimenzija ploče.
+     * @param direction Smjer poteza.
+     * @return Prirast rezultata, ili -1 ako se ploča nije promijenila.
+     */
+    public static int applyMove(int[] cells, int size, int direction) {
+        int total = 0;
+        boolean changed = false;
+        for (int line = 0; line < size; line++) {
+            int gained = moveLine(cells, size, direction, line);
+            if (gained >= 0) {
+                total += gained;
+                changed = true;
             }
         }
+        return changed ? total : -1;
     }
 
     /**
-     * Pomjeranje pločica lijevo.
+     * Određuje najmanju traku linija koja se više ne dijeli, tako da svaka nit
+     * dobije nekoliko traka radi ravnomjernijeg opterećenja.
+     *
+     * @return Broj linija u jednoj traci.
      */
-    private void moveLeft() {
-        for (int row = 0; row < SIZE; row++) {
-            int[] merged = new int[SIZE];
-            int target = 0;
-            for (int col = 0; col < SIZE; col++) {
-                if (board[row][col] != 0) {
-                    if (target > 0 && board[row][target - 1] == board[row][col] && merged[target - 1] == 0) {
-                        board[row][target - 1] *= 2;
-                        score += board[row][target - 1];
-                        board[row][col] = 0;
-                        merged[target - 1] = 1;
-                    } else {
-                        if (target != col) {
-                            board[row][target] = board[row][col];
-                            board[row][col] = 0;
-                        }
-                        target++;
-                    }
+    private int stripeSize() {
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        return Math.max(MIN_STRIPE, SIZE / (parallelism * 4));
+    }
+
+    /**
+     * Fork-join zadatak koji pomjera raspon linija [from, to). Svaka traka sabira vlastiti
+     * prirast rezultata i oznaku promjene, a rezultati se spajaju tek nakon `join`.
+     */
+    private final class StripeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final int direction;
+        private final boolean blocked; // Kolone se obrađuju po blokovima
+        private final int from;
+        private final int to;
+        private final int stripe;
+        private int scoreDelta; // Prirast rezultata unutar trake
+        private boolean changed; // Da li se ijedna linija u traci promijenila
+
+        StripeTask(int direction, boolean blocked, int from, int to, int stripe) {
+            this.direction = direction;
+            this.blocked = blocked;
+            this.from = from;
+            this.to = to;
+            this.stripe = stripe;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= (blocked ? Math.max(stripe, BLOCK) : stripe)) {
+                slideRange();
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            if (blocked) {
+                mid = from + Math.max(BLOCK, (to - from) / 2 / BLOCK * BLOCK); // Trake počinju na granici bloka
+            }
+            StripeTask left = new StripeTask(direction, blocked, from, mid, stripe);
+            StripeTask right = new StripeTask(direction, blocked, mid, to, stripe);
+            invokeAll(left, right);
+            scoreDelta = left.scoreDelta + right.scoreDelta;
+            changed = left.changed || right.changed;
+        }
+
+        /**
+         * Pomjera sve linije raspona u pozivajućoj niti, bez dijeljenja na trake.
+         */
+        void slideRange() {
+            if (blocked) {
+                int[] targets = new int[BLOCK];
+                int[] mergeables = new int[BLOCK];
+                for (int col = from; col < to; col += BLOCK) {
+                    add(slideColumnBlock(cells, SIZE, direction, col, Math.min(col + BLOCK, to), targets, mergeables));
+                }
+            } else {
+                for (int line = from; line < to; line++) {
+                    add(moveLine(cells, SIZE, direction, line));
                 }
             }
         }
+
+        private void add(int gained) {
+            if (gained >= 0) {
+                scoreDelta += gained;
+                changed = true;
+            }
+        }
     }
 
     /**
-     * Pomjeranje pločica prema dolje.
+     * Pomjera kolone [fromCol, toCol) gore ili dolje u jednom prolazu kroz redove.
+     * Svaki red bloka je uzastopan u memoriji, a za svaku kolonu se pamti ciljni indeks
+     * i pločica koja se još može spojiti, pa su pravila ista kao u {@link #slideLine}.
+     *
+     * @return Prirast rezultata, ili -1 ako se nijedna kolona nije promijenila.
      */
-    private void moveDown() {
-        for (int col = 0; col < SIZE; col++) {
-            int[] merged = new int[SIZE];
-            int target = SIZE - 1;
-            for (int row = SIZE - 1; row >= 0; row--) {
-                if (board[row][col] != 0) {
-                    if (target < SIZE - 1 && board[target + 1][col] == board[row][col] && merged[target + 1] == 0) {
-                        board[target + 1][col] *= 2;
-                        score += board[target + 1][col];
-                        board[row][col] = 0;
-                        merged[target + 1] = 1;
-                    } else {
-                        if (target != row) {
-                            board[target][col] = board[row][col];
-                            board[row][col] = 0;
-                        }
-                        target--;
+    private static int slideColumnBlock(int[] cells, int size, int direction, int fromCol, int toCol,
+                                        int[] targets, int[] mergeables) {
+        int width = toCol - fromCol;
+        int stride = direction == UP ? size : -size;
+        int firstRow = direction == UP ? 0 : size - 1;
+        for (int j = 0; j < width; j++) {
+            targets[j] = firstRow * size + fromCol + j;
+            mergeables[j] = 0;
+        }
+        int gained = 0;
+        boolean changed = false;
+        int base = firstRow * size + fromCol;
+        for (int i = 0; i < size; i++, base += stride) {
+            for (int j = 0; j < width; j++) {
+                int index = base + j;
+                int value = cells[index];
+                if (value == 0) continue;
+                int target = targets[j];
+                if (value == mergeables[j]) {
+                    cells[target - stride] = value * 2; // Spajanje pločica
+                    gained += value * 2;
+                    cells[index] = 0;
+                    mergeables[j] = 0;
+                    changed = true;
+                } else {
+                    if (target != index) {
+                        cells[target] = value; // Pomjeranje pločice
+                        cells[index] = 0;
+                        changed = true;
                     }
+                    mergeables[j] = value;
+                    targets[j] = target + stride;
                 }
             }
         }
+        return changed ? gained : -1;
     }
 
     /**
-     * Pomjeranje pločica desno.
+     * Pomjera jednu liniju (red ili kolonu) u zadatom smjeru.
+     *
+     * @param cells Pločice red po red.
+     * @param size Dimenzija ploče.
+     * @param direction Smjer poteza.
+     * @param line Indeks reda (lijevo/desno) ili kolone (gore/dolje).
+     * @return Prirast rezultata, ili -1 ako se linija nije promijenila.
      */
-    private void moveRight() {
-        for (int row = 0; row < SIZE; row++) {
-            int[] merged = new int[SIZE];
-            int target = SIZE - 1;
-            for (int col = SIZE - 1; col >= 0; col--) {
-                if (board[row][col] != 0) {
-                    if (target < SIZE - 1 && board[row][target + 1] == board[row][col] && merged[target + 1] == 0) {
-                        board[row][target + 1] *= 2;
-                        score += board[row][target + 1];
-                        board[row][col] = 0;
-                        merged[target + 1] = 1;
-                    } else {
-                        if (target != col) {
-                            board[row][target] = board[row][col];
-                            board[row][col] = 0;
-                        }
-                        target--;
-                    }
+    private static int moveLine(int[] cells, int size, int direction, int line) {
+        switch (direction) {
+            case UP:
+                return slideLine(cells, line, size, size);
+            case LEFT:
+                return slideLine(cells, line * size, 1, size);
+            case DOWN:
+                return slideLine(cells, (size - 1) * size + line, -size, size);
+            default:
+                return slideLine(cells, line * size + size - 1, -1, size);
+        }
+    }
+
+    /**
+     * Pomjera i spaja pločice jedne linije prema njenom početku. Linija počinje na indeksu
+     * `start` i svaka sljedeća pločica je `stride` dalje, pa ista petlja pokriva sva četiri smjera.
+     * Vrijednost `mergeable` je pločica ispred cilja koja se još može spojiti
+     * (0 ako je već spojena), što zamjenjuje pomoćni niz oznaka spojenih pločica.
+     *
+     * @return Prirast rezultata, ili -1 ako se linija nije promijenila.
+     */
+    static int slideLine(int[] cells, int start, int stride, int length) {
+        int target = start; // Ciljana pozicija za pomjeranje pločica
+        int mergeable = 0;
+        int gained = 0;
+        boolean changed = false;
+        int index = start;
+        for (int i = 0; i < length; i++, index += stride) {
+            int value = cells[index];
+            if (value == 0) continue;
+            if (value == mergeable) {
+                cells[target - stride] = value * 2; // Spajanje pločica
+                gained += value * 2; // Ažuriranje rezultata
+                cells[index] = 0; // Uklanjanje stare pločice
+                mergeable = 0; // Spojena pločica se ne spaja ponovo
+                changed = true;
+            } else {
+                if (target != index) {
+                    cells[target] = value; // Pomjeranje pločice
+                    cells[index] = 0;
+                    changed = true;
                 }
+                mergeable = value;
+                target += stride;
             }
         }
+        return changed ? gained : -1;
     }
 
     /**
-     * Provjerava da li na ploči postoji prazna pločica.
+     * Vraća smjerove u kojima bi potez promijenio ploču, bez izvršavanja poteza.
      *
-     * @return `true` ako postoji prazna pločica, `false` inače.
+     * @return Maska od 4 bita; bit {@code 1 << smjer} je postavljen ako je smjer moguć.
      */
-    private boolean hasEmptyTile() {
-        for (int[] row : board) {
-            for (int tile : row) {
-                if (tile == 0) return true;
+    public int legalMoves() {
+        return legalMoves(cells, SIZE);
+    }
+
+    /**
+     * Provjerava da li bi potez u zadanom smjeru promijenio ploču.
+     *
+     * @param direction Smjer poteza ({@link #UP}, {@link #LEFT}, {@link #DOWN}, {@link #RIGHT}).
+     * @return `true` ako je potez moguć, `false` inače.
+     */
+    public boolean isLegal(int direction) {
+        return (legalMoves() >>> direction & 1) != 0;
+    }
+
+    /**
+     * Računa moguće smjerove u jednom prolazu kroz susjedne parove pločica: prazno polje
+     * ispred pločice omogućava pomjeranje prema njemu, a dvije jednake pločice spajanje
+     * u oba smjera te ose. Prolaz staje čim su sva četiri smjera moguća.
+     *
+     * @param cells Pločice red po red.
+     * @param size Dimenzija ploče.
+     * @return Maska od 4 bita; bit {@code 1 << smjer} je postavljen ako je smjer moguć.
+     */
+    public static int legalMoves(int[] cells, int size) {
+        int mask = 0;
+        for (int row = 0; row < size; row++) {
+            int base = row * size;
+            for (int col = 0; col < size; col++) {
+                int tile = cells[base + col];
+                if (col < size - 1) mask |= pairMask(tile, cells[base + col + 1], LEFT, RIGHT);
+                if (row < size - 1) mask |= pairMask(tile, cells[base + size + col], UP, DOWN);
             }
+            if (mask == 0b1111) return mask;
         }
-        return false;
+        return mask;
     }
 
     /**
-     * Provjerava da li se dvije pločice mogu spojiti.
+     * Vraća smjerove koje omogućava par susjednih pločica.
      *
-     * @return `true` ako se mogu spojiti, `false` inače.
+     * @param first Pločica lijevo ili gore.
+     * @param second Pločica desno ili dolje.
+     * @param towardsFirst Smjer prema prvoj pločici.
+     * @param towardsSecond Smjer prema drugoj pločici.
      */
-    private boolean canMergeTiles() {
-        for (int row = 0; row < SIZE; row++) {
-            for (int col = 0; col < SIZE; col++) {
-                if (col < SIZE - 1 && board[row][col] == board[row][col + 1]) return true;
-                if (row < SIZE - 1 && board[row][col] == board[row + 1][col]) return true;
-            }
+    private static int pairMask(int first, int second, int towardsFirst, int towardsSecond) {
+        if (first == 0) return second == 0 ? 0 : 1 << towardsFirst;
+        if (second == 0) return 1 << towardsSecond;
+        return first == second ? (1 << towardsFirst) | (1 << towardsSecond) : 0;
+    }
+
+    /**
+     * Provjerava da li na ploči postoji prazna pločica.
+     *
+     * @return `true` ako postoji prazna pločica, `false` inače.
+     */
+    private boolean hasEmptyTile() {
+        for (int tile : cells) {
+            if (tile == 0) return true;
         }
         return false;
     }
@@ -271,10 +663,8 @@ public class Logika2048 implements GameInterface {
      * @return `true` ako postoji pločica sa vrijednošću 2048, `false` inače.
      */
     private boolean hasTile2048() {
-        for (int[] row : board) {
-            for (int tile : row) {
-                if (tile == 2048) return true;
-            }
+        for (int tile : cells) {
+            if (tile == 2048) return true;
         }
         return false;
     }
@@ -284,43 +674,89 @@ public class Logika2048 implements GameInterface {
      */
     private void spawnRandomTile() {
         if (!hasEmptyTile()) return;
-        Random random = new Random();
+        NovaPlocicaEvent event = new NovaPlocicaEvent();
+        event.begin();
         int row, col;
+        int retries = -1; // Broj pogođenih zauzetih polja
         do {
             row = random.nextInt(SIZE);
             col = random.nextInt(SIZE);
-        } while (board[row][col] != 0);
-        board[row][col] = random.nextInt(10) < 9 ? 2 : 4;
-        System.out.println("Dodana pločica: " + board[row][col] + " na poziciji [" + row + ", " + col + "]");
+            retries++;
+        } while (cells[row * SIZE + col] != 0);
+        MetrikeIgre.get().novaPlocica(retries);
+        cells[row * SIZE + col] = random.nextInt(10) < 9 ? 2 : 4;
+        if (event.shouldCommit()) {
+            event.vrijednost = cells[row * SIZE + col];
+            event.red = row;
+            event.kolona = col;
+            event.ponovljenihIzbora = retries;
+            event.commit();
+        }
+        if (verbose) System.out.println("Dodana pločica: " + cells[row * SIZE + col] + " na poziciji [" + row + ", " + col + "]");
     }
 
     /**
-     * Kreira duboku kopiju ploče.
+     * Postavlja sadržaj ploče (kopira vrijednosti) i rezultat, npr. za mjerenja ili testne pozicije.
      *
-     * @return Duboka kopija ploče igre.
+     * @param values Nove vrijednosti pločica dimenzija SIZE x SIZE.
+     * @param newScore Novi rezultat.
      */
-    private int[][] deepCopyBoard() {
-        int[][] copy = new int[SIZE][SIZE];
-        for (int i = 0; i < SIZE; i++) {
-            System.arraycopy(board[i], 0, copy[i], 0, SIZE);
+    public void setBoard(int[][] values, int newScore) {
+        long stamp = lock.writeLock();
+        try {
+            for (int row = 0; row < SIZE; row++) {
+                System.arraycopy(values[row], 0, cells, row * SIZE, SIZE);
+            }
+            score = newScore;
+            version++;
+        } finally {
+            lock.unlockWrite(stamp);
         }
-        return copy;
     }
 
     /**
-     * Provjerava da li su dvije ploče identične.
+     * Uključuje ili isključuje ispis poruka u konzolu (isključuje se za simulacije i velike ploče).
      *
-     * @param board1 Prva ploča.
-     * @param board2 Druga ploča.
-     * @return `true` ako su ploče identične, `false` inače.
+     * @param verbose `true` za ispis poruka.
      */
-    private boolean boardsAreEqual(int[][] board1, int[][] board2) {
-        for (int i = 0; i < SIZE; i++) {
-            for (int j = 0; j < SIZE; j++) {
-                if (board1[i][j] != board2[i][j]) return false;
-            }
-        }
-        return true;
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    /**
+     * Postavlja broj linija od kojeg se potezi izvršavaju paralelno.
+     *
+     * @param threshold Najmanja veličina ploče za paralelni potez.
+     */
+    public static void setParallelThreshold(int threshold) {
+        parallelThreshold = Math.max(1, threshold);
+    }
+
+    /**
+     * Vraća broj linija od kojeg se potezi izvršavaju paralelno.
+     *
+     * @return Trenutni prag.
+     */
+    public static int getParallelThreshold() {
+        return parallelThreshold;
+    }
+
+    /**
+     * Postavlja veličinu ploče od koje se vertikalni potezi izvode po blokovima kolona.
+     *
+     * @param threshold Najmanja veličina ploče za blokovski prolaz.
+     */
+    public static void setBlockedThreshold(int threshold) {
+        blockedThreshold = Math.max(1, threshold);
+    }
+
+    /**
+     * Vraća veličinu ploče od koje se vertikalni potezi izvode po blokovima kolona.
+     *
+     * @return Trenutni prag.
+     */
+    public static int getBlockedThreshold() {
+        return blockedThreshold;
     }
 
     /**
@@ -329,12 +765,23 @@ public class Logika2048 implements GameInterface {
      * @param filePath Putanja do datoteke u koju se spremaju podaci o stanju igre.
      */
     public void saveState(String filePath) {
+        SpremanjeEvent event = new SpremanjeEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long bytes = 0;
+        boolean saved = false;
         try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(filePath))) {
-            oos.writeObject(board);
+            oos.writeObject(getBoard()); // Format datoteke ostaje int[][] radi kompatibilnosti
             oos.writeInt(score);
+            oos.flush(); // Veličina datoteke je konačna tek nakon pražnjenja toka
+            bytes = new File(filePath).length();
+            saved = true;
+            MetrikeIgre.get().spremanje(System.nanoTime() - start, bytes);
             System.out.println("Igra je uspješno spremljena.");
         } catch (IOException e) {
             System.err.println("Greška pri spremanju igre: " + e.getMessage());
+        } finally {
+            commitSaveEvent(event, "spremanje", filePath, bytes, saved);
         }
     }
 
@@ -344,12 +791,39 @@ public class Logika2048 implements GameInterface {
      * @param filePath Putanja do datoteke iz koje se učitavaju podaci o stanju igre.
      */
     public void loadState(String filePath) {
+        SpremanjeEvent event = new SpremanjeEvent();
+        event.begin();
+        long start = System.nanoTime();
+        long bytes = 0;
+        boolean loadedOk = false;
         try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(filePath))) {
-            board = (int[][]) ois.readObject();
-            score = ois.readInt();
+            int[][] loaded = (int[][]) ois.readObject();
+            if (loaded.length != SIZE) {
+                System.err.println("Greška pri učitavanju igre: spremljena ploča je " + loaded.length + "x" + loaded.length + ".");
+                return;
+            }
+            setBoard(loaded, ois.readInt());
+            bytes = new File(filePath).length();
+            loadedOk = true;
+            MetrikeIgre.get().ucitavanje(System.nanoTime() - start, bytes);
             System.out.println("Igra je uspješno učitana.");
         } catch (IOException | ClassNotFoundException e) {
             System.err.println("Greška pri učitavanju igre: " + e.getMessage());
+        } finally {
+            commitSaveEvent(event, "ucitavanje", filePath, bytes, loadedOk);
+        }
+    }
+
+    /**
+     * Završava JFR događaj spremanja ili učitavanja (samo ako se snima).
+     */
+    private static void commitSaveEvent(SpremanjeEvent event, String operation, String filePath, long bytes, boolean ok) {
+        if (event.shouldCommit()) {
+            event.operacija = operation;
+            event.putanja = filePath;
+            event.bajtova = bytes;
+            event.uspjesno = ok;
+            event.commit();
         }
     }
 }
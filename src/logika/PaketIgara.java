@@ -0,0 +1,395 @@
+package logika;
+
+import java.util.SplittableRandom;
+
+/**
+ * Klasa `PaketIgara` drži N nezavisnih igara iste veličine (2x2 do 4x4) i pomjera ih zajedno,
+ * jednim potezom po igri. Stanje je u nizovima primitivnih tipova umjesto u N objekata:
+ * svaka ploča je jedan `long` sa eksponentom pločice u svakih 4 bita (0 za prazno polje,
+ * 1 za 2, 2 za 4, ...), polje `red * veličina + kolona` u bitima od {@code 4 * polje},
+ * a rezultati su u zasebnom nizu.
+ *
+ * Red ili kolona od najviše četiri eksponenta je ključ od 16 bita, pa se linija pomjera jednim
+ * čitanjem iz tabele. Tabele se grade pomoću {@link Logika2048#slideLine}, pa su pravila
+ * pomjeranja i spajanja ista kao u `Logika2048`. Igra u kojoj bi spajanje dalo pločicu
+ * 65536 ili veću više ne stane u `long`; ona se dalje vodi kao niz vrijednosti i pomjera
+ * metodom {@link Logika2048#applyMove}.
+ *
+ * Rezultati poteza se upisuju u nizove koje daje pozivalac, pa potez ne alocira memoriju.
+ * Klasa nije sigurna za upotrebu iz više niti.
+ */
+public class PaketIgara {
+
+    /** Smjer koji označava da se igra u ovom potezu preskače. */
+    public static final int PRESKOCI = -1;
+
+    /** Najveća podržana veličina ploče. */
+    public static final int MAKS_VELICINA = 4;
+
+    /** Bit u unosu tabele: linija se promijenila. */
+    static final int PROMJENA = 1 << 16;
+
+    /** Bit u unosu tabele: spajanje daje eksponent veći od 15. */
+    static final int PRELIV = 1 << 17;
+
+    /** Tabele linija po veličini ploče, grade se pri prvoj upotrebi. */
+    private static final Tabela[] TABELE = new Tabela[MAKS_VELICINA + 1];
+
+    private final int velicina;
+    private final int brojIgara;
+
+    /** Broj bita jednog reda. */
+    private final int bitiReda;
+
+    /** Maska jedne linije (4 bita po polju). */
+    private final int maskaLinije;
+
+    /** Maska najnižeg bita svakog polja ploče. */
+    private final long niziBiti;
+
+    /** Ploče, jedna po igri. */
+    private final long[] ploce;
+
+    /** Rezultat svake igre. */
+    private final int[] rezultati;
+
+    /** Vrijednosti pločica igara koje ne staju u `long`, inače `null`. */
+    private final int[][] velike;
+
+    /** Tabele pomjeranja za veličinu ploče. */
+    private final Tabela tabela;
+
+    /** Generator za nove pločice. */
+    private final SplittableRandom random;
+
+    /**
+     * Tabele pomjeranja jedne linije: ključ su eksponenti linije po 4 bita (prvo polje u
+     * najnižim bitima), a unos sadrži novu liniju u istom obliku i bitove {@link #PROMJENA}
+     * i {@link #PRELIV}. `premaPrvom` pomjera prema prvom polju (lijevo, gore), a
+     * `premaZadnjem` prema zadnjem (desno, dolje). Koristi ih i {@link TacniRjesavac}.
+     */
+    static final class Tabela {
+        final int[] premaPrvom;
+        final int[] premaZadnjem;
+        final int[] bodoviPremaPrvom;
+        final int[] bodoviPremaZadnjem;
+
+        private Tabela(int velicina) {
+            int brojKljuceva = 1 << (4 * velicina);
+            premaPrvom = new int[brojKljuceva];
+            premaZadnjem = new int[brojKljuceva];
+            bodoviPremaPrvom = new int[brojKljuceva];
+            bodoviPremaZadnjem = new int[brojKljuceva];
+            int[] linija = new int[velicina];
+            for (int kljuc = 0; kljuc < brojKljuceva; kljuc++) {
+                popuni(linija, kljuc);
+                bodoviPremaPrvom[kljuc] = Math.max(0, Logika2048.slideLine(linija, 0, 1, velicina));
+                premaPrvom[kljuc] = unos(linija, kljuc);
+                popuni(linija, kljuc);
+                bodoviPremaZadnjem[kljuc] = Math.max(0, Logika2048.slideLine(linija, velicina - 1, -1, velicina));
+                premaZadnjem[kljuc] = unos(linija, kljuc);
+            }
+        }
+
+        private static void popuni(int[] linija, int kljuc) {
+            for (int p = 0; p < linija.length; p++) {
+                int e = kljuc >>> (4 * p) & 15;
+                linija[p] = e == 0 ? 0 : 1 << e;
+            }
+        }
+
+        private static int unos(int[] linija, int kljuc) {
+            int unos = 0;
+            for (int p = 0; p < linija.length; p++) {
+                int e = eksponent(linija[p]);
+                if (e > 15) unos |= PRELIV;
+                unos |= (e & 15) << (4 * p);
+            }
+            return (unos & 0xFFFF) != kljuc || (unos & PRELIV) != 0 ? unos | PROMJENA : unos;
+        }
+    }
+
+    /**
+     * Kreira paket praznih igara.
+     *
+     * @param velicina Dimenzija ploče (2 do {@value #MAKS_VELICINA}).
+     * @param brojIgara Broj igara u paketu.
+     * @param seed Sjeme generatora novih pločica.
+     */
+    public PaketIgara(int velicina, int brojIgara, long seed) {
+        if (velicina < 2 || velicina > MAKS_VELICINA) {
+            throw new IllegalArgumentException("Veličina ploče mora biti od 2 do " + MAKS_VELICINA + ".");
+        }
+        if (brojIgara < 1) throw new IllegalArgumentException("Paket mora imati barem jednu igru.");
+        this.velicina = velicina;
+        this.brojIgara = brojIgara;
+        this.bitiReda = 4 * velicina;
+        this.maskaLinije = (1 << bitiReda) - 1;
+        long nizi = 0;
+        for (int polje = 0; polje < velicina * velicina; polje++) {
+            nizi |= 1L << (4 * polje);
+        }
+        this.niziBiti = nizi;
+        this.ploce = new long[brojIgara];
+        this.rezultati = new int[brojIgara];
+        this.velike = new int[brojIgara][];
+        this.tabela = tabela(velicina);
+        this.random = new SplittableRandom(seed);
+    }
+
+    static synchronized Tabela tabela(int velicina) {
+        if (TABELE[velicina] == null) TABELE[velicina] = new Tabela(velicina);
+        return TABELE[velicina];
+    }
+
+    /**
+     * Izvršava po jedan potez u svakoj igri, bez dodavanja novih pločica.
+     *
+     * @param smjerovi Smjer za svaku igru: konstanta iz `Logika2048` (od 0 do 3) ili {@link #PRESKOCI}.
+     * @param promjene Izlaz: da li se ploča igre promijenila.
+     * @param prirasti Izlaz: prirast rezultata igre (0 ako se ploča nije promijenila).
+     * @throws IllegalArgumentException Ako neki smjer nije ispravan; tada se nijedna igra ne pomjera.
+     */
+    public void potez(int[] smjerovi, boolean[] promjene, int[] prirasti) {
+        for (int igra = 0; igra < brojIgara; igra++) {
+            int smjer = smjerovi[igra];
+            if (smjer != PRESKOCI && (smjer < Logika2048.UP || smjer > Logika2048.RIGHT)) {
+                throw new IllegalArgumentException("Neispravan smjer " + smjer + " za igru " + igra + ".");
+            }
+        }
+        for (int igra = 0; igra < brojIgara; igra++) {
+            int smjer = smjerovi[igra];
+            int prirast = smjer == PRESKOCI ? -1
+                    : velike[igra] != null ? Logika2048.applyMove(velike[igra], velicina, smjer)
+                    : pomjeri(igra, smjer);
+            promjene[igra] = prirast >= 0;
+            prirasti[igra] = Math.max(0, prirast);
+            rezultati[igra] += prirasti[igra];
+        }
+    }
+
+    /**
+     * Pomjera jednu ploču pomoću tabela.
+     *
+     * @return Prirast rezultata, ili -1 ako se ploča nije promijenila.
+     */
+    private int pomjeri(int igra, int smjer) {
+        long ploca = ploce[igra];
+        boolean vodoravno = smjer == Logika2048.LEFT || smjer == Logika2048.RIGHT;
+        boolean premaPrvom = smjer == Logika2048.LEFT || smjer == Logika2048.UP;
+        int[] linije = premaPrvom ? tabela.premaPrvom : tabela.premaZadnjem;
+        int[] bodovi = premaPrvom ? tabela.bodoviPremaPrvom : tabela.bodoviPremaZadnjem;
+        long nova = 0;
+        int prirast = 0;
+        int sve = 0;
+        for (int l = 0; l < velicina; l++) {
+            int kljuc = vodoravno ? red(ploca, l) : kolona(ploca, l);
+            int unos = linije[kljuc];
+            sve |= unos;
+            prirast += bodovi[kljuc];
+            nova |= vodoravno ? (long) (unos & maskaLinije) << (l * bitiReda) : uKolonu(unos & maskaLinije, l);
+        }
+        if ((sve & PROMJENA) == 0) return -1;
+        if ((sve & PRELIV) != 0) {
+            // Pločica 65536 ne stane u 4 bita: igra prelazi na niz vrijednosti
+            velike[igra] = vrijednosti(ploca);
+            return Logika2048.applyMove(velike[igra], velicina, smjer);
+        }
+        ploce[igra] = nova;
+        return prirast;
+    }
+
+    private int red(long ploca, int red) {
+        return (int) (ploca >>> (red * bitiReda)) & maskaLinije;
+    }
+
+    private int kolona(long ploca, int kolona) {
+        int kljuc = 0;
+        for (int red = 0; red < velicina; red++) {
+            kljuc |= (int) (ploca >>> (4 * (red * velicina + kolona)) & 15) << (4 * red);
+        }
+        return kljuc;
+    }
+
+    private long uKolonu(int kljuc, int kolona) {
+        long rezultat = 0;
+        for (int red = 0; red < velicina; red++) {
+            rezultat |= (long) (kljuc >>> (4 * red) & 15) << (4 * (red * velicina + kolona));
+        }
+        return rezultat;
+    }
+
+    /**
+     * Dodaje po jednu nasumičnu pločicu (2 sa vjerovatnoćom 0.9, inače 4) na nasumično
+     * prazno polje svake igre čija se ploča promijenila, kao `Logika2048` nakon poteza.
+     *
+     * @param promjene Igre kojima se dodaje pločica.
+     */
+    public void dodajPlocice(boolean[] promjene) {
+        for (int igra = 0; igra < brojIgara; igra++) {
+            if (promjene[igra]) dodajPlocicu(igra);
+        }
+    }
+
+    /**
+     * Dodaje nasumičnu pločicu na nasumično prazno polje igre, ako takvo postoji.
+     */
+    private void dodajPlocicu(int igra) {
+        if (velike[igra] != null) {
+            dodajVelikoj(velike[igra]);
+            return;
+        }
+        long ploca = ploce[igra];
+        long zauzeta = ploca | ploca >>> 1;
+        zauzeta |= zauzeta >>> 2;
+        long prazna = ~zauzeta & niziBiti; // Najniži bit svakog praznog polja
+        int praznih = Long.bitCount(prazna);
+        if (praznih == 0) return;
+        for (int izbor = random.nextInt(praznih); izbor > 0; izbor--) {
+            prazna &= prazna - 1;
+        }
+        long vrijednost = random.nextInt(10) < 9 ? 1 : 2;
+        ploce[igra] = ploca | vrijednost << Long.numberOfTrailingZeros(prazna);
+    }
+
+    private void dodajVelikoj(int[] vrijednosti) {
+        int praznih = 0;
+        for (int v : vrijednosti) {
+            if (v == 0) praznih++;
+        }
+        if (praznih == 0) return;
+        int izbor = random.nextInt(praznih);
+        for (int polje = 0; ; polje++) {
+            if (vrijednosti[polje] == 0 && izbor-- == 0) {
+                vrijednosti[polje] = random.nextInt(10) < 9 ? 2 : 4;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Računa moguće smjerove za svaku igru (kao {@link Logika2048#legalMoves()}).
+     *
+     * @param maske Izlaz: maska od 4 bita za svaku igru; 0 znači da igra nema mogućih poteza.
+     */
+    public void moguciPotezi(int[] maske) {
+        int[] prvi = tabela.premaPrvom;
+        int[] zadnji = tabela.premaZadnjem;
+        for (int igra = 0; igra < brojIgara; igra++) {
+            if (velike[igra] != null) {
+                maske[igra] = Logika2048.legalMoves(velike[igra], velicina);
+                continue;
+            }
+            long ploca = ploce[igra];
+            int redovi = 0;
+            int kolone = 0;
+            for (int l = 0; l < velicina; l++) {
+                int red = red(ploca, l);
+                int kolona = kolona(ploca, l);
+                redovi |= prvi[red] & PROMJENA | (zadnji[red] & PROMJENA) << 1;
+                kolone |= prvi[kolona] & PROMJENA | (zadnji[kolona] & PROMJENA) << 1;
+            }
+            maske[igra] = (redovi >>> 16 & 1) << Logika2048.LEFT | (redovi >>> 17 & 1) << Logika2048.RIGHT
+                    | (kolone >>> 16 & 1) << Logika2048.UP | (kolone >>> 17 & 1) << Logika2048.DOWN;
+        }
+    }
+
+    /**
+     * Vraća igru na početak: prazna ploča sa dvije nasumične pločice i rezultat 0.
+     *
+     * @param igra Indeks igre.
+     */
+    public void resetuj(int igra) {
+        ploce[igra] = 0;
+        velike[igra] = null;
+        rezultati[igra] = 0;
+        dodajPlocicu(igra);
+        dodajPlocicu(igra);
+    }
+
+    /**
+     * Postavlja ploču i rezultat jedne igre.
+     *
+     * @param igra Indeks igre.
+     * @param vrijednosti Vrijednosti pločica red po red (0 ili stepen dvojke veći od 1).
+     * @param rezultat Rezultat igre.
+     */
+    public void postaviPlocu(int igra, int[] vrijednosti, int rezultat) {
+        if (vrijednosti.length != velicina * velicina) {
+            throw new IllegalArgumentException("Ploča mora imati " + velicina * velicina + " polja.");
+        }
+        long ploca = 0;
+        boolean velika = false;
+        for (int polje = 0; polje < vrijednosti.length; polje++) {
+            int v = vrijednosti[polje];
+            if (v < 0 || v == 1 || (v & (v - 1)) != 0) {
+                throw new IllegalArgumentException("Neispravna vrijednost pločice: " + v);
+            }
+            int e = eksponent(v);
+            if (e > 15) velika = true;
+            ploca |= (long) (e & 15) << (4 * polje);
+        }
+        ploce[igra] = ploca;
+        velike[igra] = velika ? vrijednosti.clone() : null;
+        rezultati[igra] = rezultat;
+    }
+
+    /**
+     * Kopira ploču jedne igre u zadani niz.
+     *
+     * @param igra Indeks igre.
+     * @param dst Niz dužine veličina * veličina, popunjava se red po red.
+     */
+    public void kopirajPlocu(int igra, int[] dst) {
+        if (velike[igra] != null) {
+            System.arraycopy(velike[igra], 0, dst, 0, velike[igra].length);
+        } else {
+            int[] vrijednosti = vrijednosti(ploce[igra]);
+            System.arraycopy(vrijednosti, 0, dst, 0, vrijednosti.length);
+        }
+    }
+
+    private int[] vrijednosti(long ploca) {
+        int[] vrijednosti = new int[velicina * velicina];
+        for (int polje = 0; polje < vrijednosti.length; polje++) {
+            int e = (int) (ploca >>> (4 * polje) & 15);
+            vrijednosti[polje] = e == 0 ? 0 : 1 << e;
+        }
+        return vrijednosti;
+    }
+
+    /**
+     * Vraća rezultat igre.
+     *
+     * @param igra Indeks igre.
+     * @return Rezultat.
+     */
+    public int getRezultat(int igra) {
+        return rezultati[igra];
+    }
+
+    /**
+     * Vraća broj igara u paketu.
+     *
+     * @return Broj igara.
+     */
+    public int getBrojIgara() {
+        return brojIgara;
+    }
+
+    /**
+     * Vraća dimenziju ploče.
+     *
+     * @return Dimenzija ploče.
+     */
+    public int getVelicina() {
+        return velicina;
+    }
+
+    /**
+     * Vraća eksponent vrijednosti pločice (0 za prazno polje).
+     */
+    private static int eksponent(int vrijednost) {
+        return vrijednost == 0 ? 0 : Integer.numberOfTrailingZeros(vrijednost);
+    }
+}
@@ -0,0 +1,203 @@
+package logika;
+
+/**
+ * Klasa `PakovanaPloca` izvodi pravila igre nad pločom 2x2 ili 3x3 spakovanom u jedan `long`,
+ * u istom obliku kao {@link PaketIgara}: eksponent pločice u svakih 4 bita, polje
+ * `red * veličina + kolona` u bitima od {@code 4 * polje}. Redovi se pomjeraju tabelama
+ * paketa igara, a kolone tako što se ploča transponuje, pomjeri po redovima i vrati.
+ *
+ * Ploča i njenih sedam slika (rotacije i preslikavanja) imaju iste mogućnosti u ostatku
+ * igre, pa {@link #kanonski(long)} bira jednog predstavnika: najmanju od osam slika.
+ */
+final class PakovanaPloca {
+
+    /** Pomak prirasta rezultata u vrijednosti koju vraća {@link #pomjeri(long, int)}. */
+    static final int POMAK_BODOVA = 40;
+
+    /** Maska ploče u vrijednosti koju vraća {@link #pomjeri(long, int)}. */
+    static final long MASKA_PLOCE = (1L << POMAK_BODOVA) - 1;
+
+    private final int velicina;
+    private final int bitiReda;
+    private final int maskaLinije;
+
+    /** Maska najnižeg bita svakog polja ploče. */
+    private final long niziBiti;
+
+    private final PaketIgara.Tabela tabela;
+
+    /** Red sa obrnutim redoslijedom polja, po ključu reda. */
+    private final int[] obrnutRed;
+
+    /** Red `r` ploče postavljen kao kolona `r` transponovane ploče, po redu i ključu. */
+    private final long[][] redUKolonu;
+
+    /**
+     * @param velicina Dimenzija ploče (2 ili 3).
+     */
+    PakovanaPloca(int velicina) {
+        this.velicina = velicina;
+        this.bitiReda = 4 * velicina;
+        this.maskaLinije = (1 << bitiReda) - 1;
+        long nizi = 0;
+        for (int polje = 0; polje < velicina * velicina; polje++) {
+            nizi |= 1L << (4 * polje);
+        }
+        this.niziBiti = nizi;
+        this.tabela = PaketIgara.tabela(velicina);
+        int brojKljuceva = 1 << bitiReda;
+        obrnutRed = new int[brojKljuceva];
+        redUKolonu = new long[velicina][brojKljuceva];
+        for (int kljuc = 0; kljuc < brojKljuceva; kljuc++) {
+            for (int p = 0; p < velicina; p++) {
+                int e = kljuc >>> (4 * p) & 15;
+                obrnutRed[kljuc] |= e << (4 * (velicina - 1 - p));
+                for (int red = 0; red < velicina; red++) {
+                    redUKolonu[red][kljuc] |= (long) e << (4 * (p * velicina + red));
+                }
+            }
+        }
+    }
+
+    int getVelicina() {
+        return velicina;
+    }
+
+    int brojPolja() {
+        return velicina * velicina;
+    }
+
+    /**
+     * Pomjera ploču u zadanom smjeru, bez nove pločice.
+     *
+     * @param ploca Spakovana ploča.
+     * @param smjer Smjer (konstanta iz `Logika2048`).
+     * @return Nova ploča u bitima ispod {@link #POMAK_BODOVA} i prirast rezultata iznad njih,
+     *         ili -1 ako se ploča nije promijenila.
+     */
+    long pomjeri(long ploca, int smjer) {
+        boolean vodoravno = smjer == Logika2048.LEFT || smjer == Logika2048.RIGHT;
+        boolean premaPrvom = smjer == Logika2048.LEFT || smjer == Logika2048.UP;
+        int[] linije = premaPrvom ? tabela.premaPrvom : tabela.premaZadnjem;
+        int[] bodovi = premaPrvom ? tabela.bodoviPremaPrvom : tabela.bodoviPremaZadnjem;
+        long izvor = vodoravno ? ploca : transponuj(ploca);
+        long nova = 0;
+        long prirast = 0;
+        int sve = 0;
+        for (int l = 0; l < velicina; l++) {
+            int kljuc = red(izvor, l);
+            int unos = linije[kljuc];
+            sve |= unos;
+            prirast += bodovi[kljuc];
+            nova |= (long) (unos & maskaLinije) << (l * bitiReda);
+        }
+        if ((sve & PaketIgara.PROMJENA) == 0) return -1;
+        return (vodoravno ? nova : transponuj(nova)) | prirast << POMAK_BODOVA;
+    }
+
+    /**
+     * Vraća masku mogućih poteza (bit {@code 1 << smjer}), kao {@link Logika2048#legalMoves()}.
+     */
+    int moguci(long ploca) {
+        long transponovana = transponuj(ploca);
+        int maska = 0;
+        for (int l = 0; l < velicina; l++) {
+            int red = red(ploca, l);
+            int kolona = red(transponovana, l);
+            if ((tabela.premaPrvom[red] & PaketIgara.PROMJENA) != 0) maska |= 1 << Logika2048.LEFT;
+            if ((tabela.premaZadnjem[red] & PaketIgara.PROMJENA) != 0) maska |= 1 << Logika2048.RIGHT;
+            if ((tabela.premaPrvom[kolona] & PaketIgara.PROMJENA) != 0) maska |= 1 << Logika2048.UP;
+            if ((tabela.premaZadnjem[kolona] & PaketIgara.PROMJENA) != 0) maska |= 1 << Logika2048.DOWN;
+        }
+        return maska;
+    }
+
+    /**
+     * Vraća najmanju od osam simetričnih slika ploče.
+     */
+    long kanonski(long ploca) {
+        return Math.min(najmanjaPreslikana(ploca), najmanjaPreslikana(transponuj(ploca)));
+    }
+
+    /**
+     * Vraća najmanju od ploče, njenog vodoravnog i uspravnog preslikavanja i rotacije za 180°.
+     */
+    private long najmanjaPreslikana(long ploca) {
+        long vodoravno = 0;
+        long uspravno = 0;
+        long obje = 0;
+        for (int l = 0; l < velicina; l++) {
+            int red = red(ploca, l);
+            int obrnut = obrnutRed[red];
+            int suprotni = (velicina - 1 - l) * bitiReda;
+            vodoravno |= (long) obrnut << (l * bitiReda);
+            uspravno |= (long) red << suprotni;
+            obje |= (long) obrnut << suprotni;
+        }
+        return Math.min(Math.min(ploca, vodoravno), Math.min(uspravno, obje));
+    }
+
+    private long transponuj(long ploca) {
+        long rezultat = 0;
+        for (int l = 0; l < velicina; l++) {
+            rezultat |= redUKolonu[l][red(ploca, l)];
+        }
+        return rezultat;
+    }
+
+    private int red(long ploca, int red) {
+        return (int) (ploca >>> (red * bitiReda)) & maskaLinije;
+    }
+
+    /**
+     * Vraća masku najnižeg bita svakog praznog polja.
+     */
+    long prazna(long ploca) {
+        long zauzeta = ploca | ploca >>> 1;
+        zauzeta |= zauzeta >>> 2;
+        return ~zauzeta & niziBiti;
+    }
+
+    /**
+     * Vraća najveći eksponent na ploči.
+     */
+    int najveciEksponent(long ploca) {
+        int najveci = 0;
+        for (int polje = 0; polje < velicina * velicina; polje++) {
+            najveci = Math.max(najveci, (int) (ploca >>> (4 * polje) & 15));
+        }
+        return najveci;
+    }
+
+    /**
+     * Vraća zbir vrijednosti pločica; potez ga ne mijenja, a nova pločica ga povećava za 2 ili 4.
+     */
+    int zbir(long ploca) {
+        int zbir = 0;
+        for (int polje = 0; polje < velicina * velicina; polje++) {
+            int e = (int) (ploca >>> (4 * polje) & 15);
+            if (e != 0) zbir += 1 << e;
+        }
+        return zbir;
+    }
+
+    /**
+     * Pakuje ploču zadanu vrijednostima pločica red po red.
+     *
+     * @throws IllegalArgumentException Ako ploča nije ove veličine ili vrijednost nije 0 ni stepen dvojke do 2^15.
+     */
+    long spakuj(int[] polja) {
+        if (polja.length != velicina * velicina) {
+            throw new IllegalArgumentException("Ploča mora imati " + velicina * velicina + " polja.");
+        }
+        long ploca = 0;
+        for (int polje = 0; polje < polja.length; polje++) {
+            int v = polja[polje];
+            if (v < 0 || v == 1 || (v & (v - 1)) != 0 || v > 1 << 15) {
+                throw new IllegalArgumentException("Neispravna vrijednost pločice: " + v);
+            }
+            ploca |= (long) (v == 0 ? 0 : Integer.numberOfTrailingZeros(v)) << (4 * polje);
+        }
+        return ploca;
+    }
+}
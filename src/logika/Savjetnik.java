@@ -0,0 +1,238 @@
+package logika;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Klasa `Savjetnik` u pozadini procjenjuje sva četiri poteza iz zadane pozicije i javlja
+ * najbolji. Svaki mogući smjer se ocjenjuje nasumičnim simulacijama (potez, nova pločica,
+ * pa nasumični mogući potezi do zadane dubine), a ocjena smjera je prosječan prirast
+ * rezultata. Smjerovi se ocjenjuju paralelno u zajedničkom bazenu niti niskog prioriteta.
+ *
+ * Nova pretraga poništava prethodnu: zadaci stare pozicije primijete promjenu generacije
+ * i prekidaju rad, a njihov rezultat se odbacuje. Ukupan rad jedne pretrage je ograničen
+ * CPU budžetom (vrijeme procesora niti, a gdje ga JVM ne mjeri, proteklo vrijeme), koji se
+ * dijeli na moguće smjerove. Svaka nit bazena ima vlastite nizove za simulaciju koji se
+ * koriste za sve pozicije i alociraju ponovo samo kada se promijeni veličina ploče.
+ */
+public class Savjetnik {
+
+    /** Broj simulacija između dvije provjere budžeta. */
+    private static final int PROVJERA_SVAKIH = 16;
+
+    /** Zajednički bazen niti, kreira se pri prvoj pretrazi. */
+    private static final class Bazen {
+        private static final ExecutorService NITI = Executors.newFixedThreadPool(
+                Math.max(1, Runtime.getRuntime().availableProcessors() - 1), r -> {
+                    Thread nit = new Thread(r, "savjetnik");
+                    nit.setDaemon(true);
+                    nit.setPriority(Thread.MIN_PRIORITY);
+                    return nit;
+                });
+    }
+
+    /** Nizovi za simulaciju, po jedan skup za svaku nit bazena. */
+    private static final ThreadLocal<Spremnik> SPREMNICI = ThreadLocal.withInitial(Spremnik::new);
+
+    private static final ThreadMXBean NITI_MX = ManagementFactory.getThreadMXBean();
+
+    /** Generacija trenutne pretrage; zadaci sa starom generacijom prekidaju rad. */
+    private final AtomicLong generacija = new AtomicLong();
+
+    /** CPU budžet jedne pretrage u nanosekundama. */
+    private final long budzetNanos;
+
+    /** Broj nasumičnih poteza nakon procjenjivanog poteza. */
+    private final int dubina;
+
+    /**
+     * Rezultat pretrage.
+     */
+    public static final class Savjet {
+        private final int smjer;
+        private final double[] ocjene;
+        private final long simulacija;
+
+        private Savjet(int smjer, double[] ocjene, long simulacija) {
+            this.smjer = smjer;
+            this.ocjene = ocjene;
+            this.simulacija = simulacija;
+        }
+
+        /**
+         * @return Najbolji smjer (konstanta iz `Logika2048`).
+         */
+        public int getSmjer() {
+            return smjer;
+        }
+
+        /**
+         * @param smjer Smjer poteza.
+         * @return Prosječan prirast rezultata za smjer, ili `NaN` ako potez nije moguć.
+         */
+        public double getOcjena(int smjer) {
+            return ocjene[smjer];
+        }
+
+        /**
+         * @return Ukupan broj simulacija u pretrazi.
+         */
+        public long getSimulacija() {
+            return simulacija;
+        }
+    }
+
+    /**
+     * Nizovi i generator jedne niti bazena.
+     */
+    private static final class Spremnik {
+        private final SplittableRandom random = new SplittableRandom();
+        private int[] ploca = new int[0];
+
+        int[] ploca(int duzina) {
+            if (ploca.length != duzina) ploca = new int[duzina];
+            return ploca;
+        }
+    }
+
+    /**
+     * Kreira savjetnika.
+     *
+     * @param budzetMs CPU budžet jedne pretrage u milisekundama (zbir za sve niti).
+     * @param dubina Broj nasumičnih poteza u simulaciji nakon procjenjivanog poteza.
+     */
+    public Savjetnik(long budzetMs, int dubina) {
+        this.budzetNanos = budzetMs * 1_000_000;
+        this.dubina = dubina;
+    }
+
+    /**
+     * Pokreće pretragu za novu poziciju i poništava prethodnu. Metoda se odmah vraća;
+     * rezultat se javlja iz niti bazena, i to samo ako u međuvremenu nije pokrenuta nova
+     * pretraga ili pozvano {@link #otkazi()}.
+     *
+     * @param polja Pločice red po red (kopiraju se).
+     * @param velicina Dimenzija ploče.
+     * @param gotovo Prima najbolji savjet; ne poziva se ako nijedan potez nije moguć.
+     */
+    public void trazi(int[] polja, int velicina, Consumer<Savjet> gotovo) {
+        long moja = generacija.incrementAndGet();
+        int[] pozicija = polja.clone();
+        int maska = Logika2048.legalMoves(pozicija, velicina);
+        int moguci = Integer.bitCount(maska);
+        if (moguci == 0) return;
+
+        double[] ocjene = {Double.NaN, Double.NaN, Double.NaN, Double.NaN};
+        AtomicLong simulacija = new AtomicLong();
+        AtomicInteger preostalo = new AtomicInteger(moguci);
+        long budzetSmjera = Math.max(1, budzetNanos / moguci);
+        for (int smjer = 0; smjer < 4; smjer++) {
+            if ((maska >>> smjer & 1) == 0) continue;
+            int d = smjer;
+            Bazen.NITI.execute(() -> {
+                long[] broj = new long[1];
+                double ocjena = ocijeni(moja, pozicija, velicina, d, budzetSmjera, broj);
+                synchronized (ocjene) {
+                    ocjene[d] = ocjena;
+                }
+                simulacija.addAndGet(broj[0]);
+                if (preostalo.decrementAndGet() == 0 && generacija.get() == moja) {
+                    gotovo.accept(najbolji(ocjene, simulacija.get()));
+                }
+            });
+        }
+    }
+
+    /**
+     * Poništava trenutnu pretragu.
+     */
+    public void otkazi() {
+        generacija.incrementAndGet();
+    }
+
+    private static Savjet najbolji(double[] ocjene, long simulacija) {
+        double[] kopija;
+        synchronized (ocjene) {
+            kopija = ocjene.clone();
+        }
+        int najbolji = -1;
+        for (int smjer = 0; smjer < 4; smjer++) {
+            if (Double.isNaN(kopija[smjer])) continue;
+            if (najbolji < 0 || kopija[smjer] > kopija[najbolji]) najbolji = smjer;
+        }
+        return new Savjet(najbolji, kopija, simulacija);
+    }
+
+    /**
+     * Ocjenjuje jedan smjer simulacijama dok ne potroši budžet ili dok pretraga ne zastari.
+     *
+     * @return Prosječan prirast rezultata.
+     */
+    private double ocijeni(long moja, int[] pozicija, int velicina, int smjer, long budzet, long[] broj) {
+        Spremnik spremnik = SPREMNICI.get();
+        int[] ploca = spremnik.ploca(pozicija.length);
+        SplittableRandom random = spremnik.random;
+        long pocetak = cpuVrijeme();
+        long zbir = 0;
+        long simulacija = 0;
+        while (generacija.get() == moja) {
+            System.arraycopy(pozicija, 0, ploca, 0, pozicija.length);
+            zbir += simuliraj(ploca, velicina, smjer, random);
+            simulacija++;
+            if (simulacija % PROVJERA_SVAKIH == 0 && cpuVrijeme() - pocetak >= budzet) break;
+        }
+        broj[0] = simulacija;
+        return simulacija == 0 ? 0 : (double) zbir / simulacija;
+    }
+
+    /**
+     * Izvršava zadani potez, a zatim nasumične moguće poteze do zadane dubine.
+     *
+     * @return Ukupan prirast rezultata.
+     */
+    private long simuliraj(int[] ploca, int velicina, int smjer, SplittableRandom random) {
+        long rezultat = Math.max(0, Logika2048.applyMove(ploca, velicina, smjer));
+        dodajPlocicu(ploca, random);
+        for (int korak = 0; korak < dubina; korak++) {
+            int maska = Logika2048.legalMoves(ploca, velicina);
+            if (maska == 0) break;
+            int izbor = random.nextInt(Integer.bitCount(maska));
+            int d = Integer.numberOfTrailingZeros(maska);
+            for (; izbor > 0; izbor--) {
+                maska &= maska - 1;
+                d = Integer.numberOfTrailingZeros(maska);
+            }
+            rezultat += Logika2048.applyMove(ploca, velicina, d);
+            dodajPlocicu(ploca, random);
+        }
+        return rezultat;
+    }
+
+    /**
+     * Dodaje pločicu 2 (vjerovatnoća 0.9) ili 4 na nasumično prazno polje.
+     */
+    private static void dodajPlocicu(int[] ploca, SplittableRandom random) {
+        int praznih = 0;
+        for (int v : ploca) {
+            if (v == 0) praznih++;
+        }
+        if (praznih == 0) return;
+        int izbor = random.nextInt(praznih);
+        for (int i = 0; ; i++) {
+            if (ploca[i] == 0 && izbor-- == 0) {
+                ploca[i] = random.nextInt(10) < 9 ? 2 : 4;
+                return;
+            }
+        }
+    }
+
+    private static long cpuVrijeme() {
+        return NITI_MX.isCurrentThreadCpuTimeSupported() ? NITI_MX.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+}
@@ -0,0 +1,80 @@
+package logika;
+
+/**
+ * Klasa `SnimakPloce` je nepromjenjivo stanje ploče u jednom trenutku: pločice, rezultat
+ * i verzija. Verzija raste sa svakom promjenom ploče, pa dva snimka iste igre sa istom
+ * verzijom imaju isti sadržaj. Snimak se može slobodno dijeliti između niti.
+ *
+ * @see Logika2048#snapshot()
+ */
+public final class SnimakPloce {
+
+    private final int velicina;
+    private final int[] polja;
+    private final int rezultat;
+    private final long verzija;
+
+    /**
+     * Kreira snimak; niz `polja` postaje vlasništvo snimka i ne smije se više mijenjati.
+     */
+    SnimakPloce(int velicina, int[] polja, int rezultat, long verzija) {
+        this.velicina = velicina;
+        this.polja = polja;
+        this.rezultat = rezultat;
+        this.verzija = verzija;
+    }
+
+    /**
+     * @return Dimenzija ploče.
+     */
+    public int getVelicina() {
+        return velicina;
+    }
+
+    /**
+     * @return Rezultat igre u trenutku snimka.
+     */
+    public int getRezultat() {
+        return rezultat;
+    }
+
+    /**
+     * @return Verzija ploče (broj promjena od kreiranja igre).
+     */
+    public long getVerzija() {
+        return verzija;
+    }
+
+    /**
+     * Vraća vrijednost jedne pločice.
+     *
+     * @param red Red pločice.
+     * @param kolona Kolona pločice.
+     * @return Vrijednost pločice (0 za prazno polje).
+     */
+    public int get(int red, int kolona) {
+        return polja[red * velicina + kolona];
+    }
+
+    /**
+     * Kopira pločice red po red u zadani niz.
+     *
+     * @param dst Odredišni niz dužine najmanje veličina * veličina.
+     */
+    public void kopiraj(int[] dst) {
+        System.arraycopy(polja, 0, dst, 0, polja.length);
+    }
+
+    /**
+     * Vraća pločice kao novi dvodimenzionalni niz.
+     *
+     * @return Kopija ploče, red po red.
+     */
+    public int[][] getBoard() {
+        int[][] ploca = new int[velicina][velicina];
+        for (int red = 0; red < velicina; red++) {
+            System.arraycopy(polja, red * velicina, ploca[red], 0, velicina);
+        }
+        return ploca;
+    }
+}
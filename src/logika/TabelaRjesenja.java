@@ -0,0 +1,243 @@
+package logika;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Klasa `TabelaRjesenja` čita tačna rješenja koja je spremio {@link TacniRjesavac}. Datoteka
+ * se mapira u memoriju, pa otvaranje ne čita stanja, a operativni sistem učitava samo
+ * stranice kojima se pristupa. Upit pakuje ploču, svodi je na kanonsku sliku i binarnom
+ * pretragom nalazi je u sloju sa istim zbirom pločica.
+ *
+ * Objekat je nepromjenjiv i može se koristiti iz više niti.
+ */
+public final class TabelaRjesenja {
+
+    /** Oznaka na početku datoteke ("2048"). */
+    static final int MAGIJA = 0x32303438;
+
+    /** Verzija formata datoteke. */
+    static final int VERZIJA = 1;
+
+    /** Veličina zaglavlja u bajtovima. */
+    static final int ZAGLAVLJE = 24;
+
+    /** Veličina opisa jednog sloja u bajtovima. */
+    static final int OPIS_SLOJA = 16;
+
+    /** Stanje, očekivani rezultat i vjerovatnoća pobjede. */
+    static final int BAJTOVA_PO_STANJU = Long.BYTES + 2 * Double.BYTES;
+
+    private final PakovanaPloca ploca;
+    private final int cilj;
+    private final long brojStanja;
+
+    /** Stanja i vrijednosti po sloju; indeks je zbir pločica podijeljen sa 2. */
+    private final LongBuffer[] stanja;
+    private final DoubleBuffer[] ocekivano;
+    private final DoubleBuffer[] pobjeda;
+
+    private TabelaRjesenja(PakovanaPloca ploca, int cilj, LongBuffer[] stanja, DoubleBuffer[] ocekivano,
+            DoubleBuffer[] pobjeda, long brojStanja) {
+        this.ploca = ploca;
+        this.cilj = cilj;
+        this.stanja = stanja;
+        this.ocekivano = ocekivano;
+        this.pobjeda = pobjeda;
+        this.brojStanja = brojStanja;
+    }
+
+    /**
+     * Mapira datoteku rješenja u memoriju.
+     *
+     * @param datoteka Datoteka koju je spremio {@link TacniRjesavac#zapisi(Path)}.
+     * @return Tabela rješenja.
+     * @throws IOException Ako se datoteka ne može pročitati ili nije ispravna.
+     */
+    public static TabelaRjesenja otvori(Path datoteka) throws IOException {
+        try (FileChannel kanal = FileChannel.open(datoteka, StandardOpenOption.READ)) {
+            ByteBuffer zaglavlje = kanal.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(kanal.size(), ZAGLAVLJE));
+            if (zaglavlje.limit() < ZAGLAVLJE || zaglavlje.getInt() != MAGIJA) {
+                throw new IOException("Datoteka nije tabela rješenja: " + datoteka);
+            }
+            int verzija = zaglavlje.getInt();
+            if (verzija != VERZIJA) throw new IOException("Nepodržana verzija tabele rješenja: " + verzija);
+            int velicina = zaglavlje.getInt();
+            int cilj = zaglavlje.getInt();
+            int brojSlojeva = zaglavlje.getInt();
+            if (velicina < 2 || velicina > TacniRjesavac.MAKS_VELICINA || brojSlojeva < 0) {
+                throw new IOException("Neispravno zaglavlje tabele rješenja: " + datoteka);
+            }
+
+            ByteBuffer opisi = kanal.map(FileChannel.MapMode.READ_ONLY, ZAGLAVLJE, (long) brojSlojeva * OPIS_SLOJA);
+            int najveciZbir = 0;
+            for (int s = 0; s < brojSlojeva; s++) {
+                najveciZbir = Math.max(najveciZbir, opisi.getInt(s * OPIS_SLOJA));
+            }
+            LongBuffer[] stanja = new LongBuffer[najveciZbir / 2 + 1];
+            DoubleBuffer[] ocekivano = new DoubleBuffer[stanja.length];
+            DoubleBuffer[] pobjeda = new DoubleBuffer[stanja.length];
+            long brojStanja = 0;
+            for (int s = 0; s < brojSlojeva; s++) {
+                int zbir = opisi.getInt(s * OPIS_SLOJA);
+                int broj = opisi.getInt(s * OPIS_SLOJA + 4);
+                long pomak = opisi.getLong(s * OPIS_SLOJA + 8);
+                long bajtova = (long) broj * BAJTOVA_PO_STANJU;
+                if (pomak + bajtova > kanal.size() || bajtova > Integer.MAX_VALUE) {
+                    throw new IOException("Sloj " + zbir + " izlazi izvan datoteke " + datoteka);
+                }
+                // Mapiranje ostaje važeće i nakon zatvaranja kanala
+                MappedByteBuffer blok = kanal.map(FileChannel.MapMode.READ_ONLY, pomak, bajtova);
+                stanja[zbir / 2] = blok.slice(0, broj * Long.BYTES).asLongBuffer();
+                ocekivano[zbir / 2] = blok.slice(broj * Long.BYTES, broj * Double.BYTES).asDoubleBuffer();
+                pobjeda[zbir / 2] = blok.slice(broj * (Long.BYTES + Double.BYTES), broj * Double.BYTES).asDoubleBuffer();
+                brojStanja += broj;
+            }
+            return new TabelaRjesenja(new PakovanaPloca(velicina), cilj, stanja, ocekivano, pobjeda, brojStanja);
+        }
+    }
+
+    /**
+     * @return Dimenzija ploče.
+     */
+    public int getVelicina() {
+        return ploca.getVelicina();
+    }
+
+    /**
+     * @return Pločica za koju se računa vjerovatnoća pobjede.
+     */
+    public int getCiljnaPlocica() {
+        return 1 << cilj;
+    }
+
+    /**
+     * @return Broj stanja u tabeli.
+     */
+    public long brojStanja() {
+        return brojStanja;
+    }
+
+    /**
+     * Vraća očekivani prirast rezultata od zadane pozicije do kraja igre uz najbolju igru.
+     *
+     * @param polja Pločice red po red.
+     * @return Očekivani prirast rezultata, ili `NaN` ako pozicija nije dostižna u igri.
+     */
+    public double ocekivaniRezultat(int[] polja) {
+        return vrijednost(ploca.spakuj(polja), false);
+    }
+
+    /**
+     * Vraća vjerovatnoću da se od zadane pozicije dođe do ciljne pločice uz najbolju igru.
+     *
+     * @param polja Pločice red po red.
+     * @return Vjerovatnoća pobjede, ili `NaN` ako pozicija nije dostižna u igri.
+     */
+    public double vjerovatnocaPobjede(int[] polja) {
+        return vrijednost(ploca.spakuj(polja), true);
+    }
+
+    /**
+     * Vraća potez sa najvećim očekivanim rezultatom.
+     *
+     * @param polja Pločice red po red.
+     * @param zaPobjedu `true` za potez sa najvećom vjerovatnoćom pobjede umjesto rezultata.
+     * @return Najbolji smjer (konstanta iz `Logika2048`), ili -1 ako nijedan potez nije moguć
+     *         ili pozicija nije dostižna u igri.
+     */
+    public int najboljiPotez(int[] polja, boolean zaPobjedu) {
+        long stanje = ploca.spakuj(polja);
+        int najbolji = -1;
+        double najveca = Double.NEGATIVE_INFINITY;
+        for (int smjer = 0; smjer < 4; smjer++) {
+            double vrijednost = vrijednostPoteza(stanje, smjer, zaPobjedu);
+            if (vrijednost > najveca) {
+                najveca = vrijednost;
+                najbolji = smjer;
+            }
+        }
+        return najbolji;
+    }
+
+    /**
+     * Vraća očekivani rezultat cijele igre uz najbolju igru: prosjek po svim početnim pločama
+     * sa dvije nasumične pločice, kao u `Logika2048`.
+     *
+     * @param zaPobjedu `true` za vjerovatnoću pobjede umjesto rezultata.
+     * @return Očekivana vrijednost od početka igre.
+     */
+    public double vrijednostIgre(boolean zaPobjedu) {
+        int polja = ploca.brojPolja();
+        double zbir = 0;
+        for (int prvo = 0; prvo < polja; prvo++) {
+            for (int drugo = 0; drugo < polja; drugo++) {
+                if (drugo == prvo) continue;
+                for (int a = 1; a <= 2; a++) {
+                    for (int b = 1; b <= 2; b++) {
+                        double p = vjerovatnoca(a) * vjerovatnoca(b);
+                        zbir += p * vrijednost((long) a << (4 * prvo) | (long) b << (4 * drugo), zaPobjedu);
+                    }
+                }
+            }
+        }
+        return zbir / (polja * (polja - 1));
+    }
+
+    private static double vjerovatnoca(int eksponent) {
+        return eksponent == 1 ? TacniRjesavac.VJEROVATNOCA_DVOJKE : 1 - TacniRjesavac.VJEROVATNOCA_DVOJKE;
+    }
+
+    /**
+     * Vraća vrijednost poteza: prirast i očekivanu vrijednost nakon nove pločice.
+     *
+     * @return Vrijednost, `-Infinity` ako potez nije moguć, ili `NaN` ako neki sljedbenik nije u tabeli.
+     */
+    private double vrijednostPoteza(long stanje, int smjer, boolean zaPobjedu) {
+        if (ploca.najveciEksponent(stanje) >= TacniRjesavac.EKSPONENT_KRAJA) return Double.NEGATIVE_INFINITY;
+        long potez = ploca.pomjeri(stanje, smjer);
+        if (potez < 0) return Double.NEGATIVE_INFINITY;
+        long nakon = potez & PakovanaPloca.MASKA_PLOCE;
+        long prazna = ploca.prazna(nakon);
+        int praznih = Long.bitCount(prazna);
+        double zbir = 0;
+        for (; prazna != 0; prazna &= prazna - 1) {
+            long bit = Long.lowestOneBit(prazna);
+            zbir += TacniRjesavac.VJEROVATNOCA_DVOJKE * vrijednost(nakon | bit, zaPobjedu)
+                    + (1 - TacniRjesavac.VJEROVATNOCA_DVOJKE) * vrijednost(nakon | bit << 1, zaPobjedu);
+        }
+        return (zaPobjedu ? 0 : potez >>> PakovanaPloca.POMAK_BODOVA) + zbir / praznih;
+    }
+
+    /**
+     * Traži stanje u njegovom sloju.
+     *
+     * @return Vrijednost stanja, ili `NaN` ako stanje nije u tabeli.
+     */
+    private double vrijednost(long stanje, boolean zaPobjedu) {
+        int sloj = ploca.zbir(stanje) / 2;
+        if (sloj >= stanja.length || stanja[sloj] == null) return Double.NaN;
+        LongBuffer sortirana = stanja[sloj];
+        long kljuc = ploca.kanonski(stanje);
+        int nisko = 0;
+        int visoko = sortirana.limit() - 1;
+        while (nisko <= visoko) {
+            int sredina = (nisko + visoko) >>> 1;
+            long s = sortirana.get(sredina);
+            if (s < kljuc) {
+                nisko = sredina + 1;
+            } else if (s > kljuc) {
+                visoko = sredina - 1;
+            } else {
+                return zaPobjedu ? pobjeda[sloj].get(sredina) : ocekivano[sloj].get(sredina);
+            }
+        }
+        return Double.NaN;
+    }
+}
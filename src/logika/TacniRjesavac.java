@@ -0,0 +1,300 @@
+package logika;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Klasa `TacniRjesavac` tačno rješava igru na pločama 2x2 i 3x3: nabraja sva stanja do kojih
+ * igra po pravilima `Logika2048` može doći i za svako računa očekivani rezultat do kraja igre
+ * i vjerovatnoću da se dođe do ciljne pločice, uz najbolju igru za svaki od ta dva cilja.
+ *
+ * Stanje je ploča spakovana u `long` ({@link PakovanaPloca}), svedena na najmanju od osam
+ * simetričnih slika. Potez ne mijenja zbir pločica, a nova pločica ga povećava za 2 ili 4,
+ * pa su stanja podijeljena u slojeve po zbiru i svaki sloj je sortiran niz `long` vrijednosti.
+ * Slojevi se nabrajaju od najmanjeg zbira (sljedbenici stanja su u slojevima zbir + 2 i
+ * zbir + 4), a vrijednosti računaju od najvećeg. Stanja jednog sloja se u oba prolaza
+ * obrađuju paralelno, u komadima; sljedbenik se nalazi binarnom pretragom u svom sloju.
+ *
+ * Igra završava kada nema mogućih poteza ili kada se pojavi pločica 2048 (kao
+ * {@link Logika2048#isGameOver()}). Rezultat se sprema u datoteku koju čita
+ * {@link TabelaRjesenja}.
+ */
+public final class TacniRjesavac {
+
+    /** Najveća podržana veličina ploče. */
+    public static final int MAKS_VELICINA = 3;
+
+    /** Eksponent pločice 2048, sa kojom igra završava. */
+    static final int EKSPONENT_KRAJA = 11;
+
+    /** Broj stanja u jednom komadu paralelnog prolaza. */
+    private static final int KOMAD = 1 << 14;
+
+    /** Vjerovatnoća nove pločice 2 (inače 4). */
+    static final double VJEROVATNOCA_DVOJKE = 0.9;
+
+    private final PakovanaPloca ploca;
+    private final int cilj;
+
+    /** Slojevi po zbiru pločica. */
+    private final TreeMap<Integer, Sloj> slojevi = new TreeMap<>();
+
+    /**
+     * Stanja jednog sloja i njihove vrijednosti.
+     */
+    static final class Sloj {
+        final int zbir;
+        final long[] stanja;
+        double[] ocekivano;
+        double[] pobjeda;
+
+        Sloj(int zbir, long[] stanja) {
+            this.zbir = zbir;
+            this.stanja = stanja;
+        }
+    }
+
+    /**
+     * Kreira rješavač.
+     *
+     * @param velicina Dimenzija ploče (2 ili {@value #MAKS_VELICINA}).
+     * @param ciljnaPlocica Pločica za vjerovatnoću pobjede (stepen dvojke od 4 do 2048).
+     */
+    public TacniRjesavac(int velicina, int ciljnaPlocica) {
+        if (velicina < 2 || velicina > MAKS_VELICINA) {
+            throw new IllegalArgumentException("Tačno rješenje postoji samo za ploče od 2x2 do "
+                    + MAKS_VELICINA + "x" + MAKS_VELICINA + ".");
+        }
+        if (ciljnaPlocica < 4 || ciljnaPlocica > 1 << EKSPONENT_KRAJA || (ciljnaPlocica & (ciljnaPlocica - 1)) != 0) {
+            throw new IllegalArgumentException("Ciljna pločica mora biti stepen dvojke od 4 do 2048.");
+        }
+        this.ploca = new PakovanaPloca(velicina);
+        this.cilj = Integer.numberOfTrailingZeros(ciljnaPlocica);
+    }
+
+    /**
+     * Nabraja sva stanja i računa njihove vrijednosti.
+     */
+    public void rijesi() {
+        nabroji();
+        izracunaj();
+    }
+
+    /**
+     * Vraća ukupan broj stanja (nakon {@link #rijesi()}).
+     *
+     * @return Broj stanja svih slojeva.
+     */
+    public long brojStanja() {
+        long broj = 0;
+        for (Sloj sloj : slojevi.values()) {
+            broj += sloj.stanja.length;
+        }
+        return broj;
+    }
+
+    /**
+     * Vraća broj slojeva (različitih zbirova pločica).
+     *
+     * @return Broj slojeva.
+     */
+    public int brojSlojeva() {
+        return slojevi.size();
+    }
+
+    /**
+     * Nabraja stanja sloj po sloj, od početnih ploča sa dvije pločice.
+     */
+    private void nabroji() {
+        TreeMap<Integer, List<long[]>> naCekanju = new TreeMap<>();
+        int polja = ploca.brojPolja();
+        for (int prvo = 0; prvo < polja; prvo++) {
+            for (int drugo = prvo + 1; drugo < polja; drugo++) {
+                for (int a = 1; a <= 2; a++) {
+                    for (int b = 1; b <= 2; b++) {
+                        long pocetna = (long) a << (4 * prvo) | (long) b << (4 * drugo);
+                        naCekanju.computeIfAbsent(ploca.zbir(pocetna), z -> new ArrayList<>())
+                                .add(new long[] {ploca.kanonski(pocetna)});
+                    }
+                }
+            }
+        }
+        while (!naCekanju.isEmpty()) {
+            Map.Entry<Integer, List<long[]>> unos = naCekanju.pollFirstEntry();
+            int zbir = unos.getKey();
+            long[] stanja = jedinstvena(unos.getValue());
+            slojevi.put(zbir, new Sloj(zbir, stanja));
+
+            int komada = (stanja.length + KOMAD - 1) / KOMAD;
+            List<long[][]> sljedbenici = IntStream.range(0, komada).parallel()
+                    .mapToObj(k -> sljedbenici(stanja, k * KOMAD, Math.min(stanja.length, (k + 1) * KOMAD)))
+                    .toList();
+            for (long[][] komad : sljedbenici) {
+                if (komad[0].length > 0) naCekanju.computeIfAbsent(zbir + 2, z -> new ArrayList<>()).add(komad[0]);
+                if (komad[1].length > 0) naCekanju.computeIfAbsent(zbir + 4, z -> new ArrayList<>()).add(komad[1]);
+            }
+        }
+    }
+
+    /**
+     * Vraća sortirane jedinstvene sljedbenike stanja iz zadanog raspona: prvi niz za novu
+     * pločicu 2, drugi za novu pločicu 4.
+     */
+    private long[][] sljedbenici(long[] stanja, int od, int doIsklj) {
+        long[] dvojke = new long[256];
+        long[] cetvorke = new long[256];
+        int brojDvojki = 0;
+        int brojCetvorki = 0;
+        for (int i = od; i < doIsklj; i++) {
+            long stanje = stanja[i];
+            if (ploca.najveciEksponent(stanje) >= EKSPONENT_KRAJA) continue;
+            for (int smjer = 0; smjer < 4; smjer++) {
+                long potez = ploca.pomjeri(stanje, smjer);
+                if (potez < 0) continue;
+                long nakon = potez & PakovanaPloca.MASKA_PLOCE;
+                for (long prazna = ploca.prazna(nakon); prazna != 0; prazna &= prazna - 1) {
+                    long bit = Long.lowestOneBit(prazna);
+                    if (brojDvojki == dvojke.length) dvojke = Arrays.copyOf(dvojke, brojDvojki * 2);
+                    if (brojCetvorki == cetvorke.length) cetvorke = Arrays.copyOf(cetvorke, brojCetvorki * 2);
+                    dvojke[brojDvojki++] = ploca.kanonski(nakon | bit);
+                    cetvorke[brojCetvorki++] = ploca.kanonski(nakon | bit << 1);
+                }
+            }
+        }
+        return new long[][] {jedinstvena(dvojke, brojDvojki), jedinstvena(cetvorke, brojCetvorki)};
+    }
+
+    private static long[] jedinstvena(List<long[]> dijelovi) {
+        int ukupno = 0;
+        for (long[] dio : dijelovi) {
+            ukupno += dio.length;
+        }
+        long[] sva = new long[ukupno];
+        int pozicija = 0;
+        for (long[] dio : dijelovi) {
+            System.arraycopy(dio, 0, sva, pozicija, dio.length);
+            pozicija += dio.length;
+        }
+        dijelovi.clear();
+        return jedinstvena(sva, ukupno);
+    }
+
+    /**
+     * Sortira prvih `broj` elemenata i vraća ih bez ponavljanja.
+     */
+    private static long[] jedinstvena(long[] niz, int broj) {
+        Arrays.parallelSort(niz, 0, broj);
+        int jedinstvenih = 0;
+        for (int i = 0; i < broj; i++) {
+            if (jedinstvenih == 0 || niz[i] != niz[jedinstvenih - 1]) niz[jedinstvenih++] = niz[i];
+        }
+        return jedinstvenih == niz.length ? niz : Arrays.copyOf(niz, jedinstvenih);
+    }
+
+    /**
+     * Računa vrijednosti slojeva od najvećeg zbira prema najmanjem.
+     */
+    private void izracunaj() {
+        for (Sloj sloj : slojevi.descendingMap().values()) {
+            Sloj saDvojkom = slojevi.get(sloj.zbir + 2);
+            Sloj saCetvorkom = slojevi.get(sloj.zbir + 4);
+            int broj = sloj.stanja.length;
+            sloj.ocekivano = new double[broj];
+            sloj.pobjeda = new double[broj];
+            IntStream.range(0, (broj + KOMAD - 1) / KOMAD).parallel().forEach(k -> {
+                for (int i = k * KOMAD, kraj = Math.min(broj, (k + 1) * KOMAD); i < kraj; i++) {
+                    ocijeni(sloj, i, saDvojkom, saCetvorkom);
+                }
+            });
+        }
+    }
+
+    /**
+     * Računa očekivani rezultat i vjerovatnoću pobjede jednog stanja iz vrijednosti sljedbenika.
+     */
+    private void ocijeni(Sloj sloj, int i, Sloj saDvojkom, Sloj saCetvorkom) {
+        long stanje = sloj.stanja[i];
+        int najveci = ploca.najveciEksponent(stanje);
+        double najboljeOcekivano = 0;
+        double najboljaPobjeda = najveci >= cilj ? 1 : 0;
+        if (najveci >= EKSPONENT_KRAJA) {
+            sloj.pobjeda[i] = najboljaPobjeda;
+            return;
+        }
+        for (int smjer = 0; smjer < 4; smjer++) {
+            long potez = ploca.pomjeri(stanje, smjer);
+            if (potez < 0) continue;
+            long nakon = potez & PakovanaPloca.MASKA_PLOCE;
+            double ocekivano = 0;
+            double pobjeda = 0;
+            long prazna = ploca.prazna(nakon);
+            int praznih = Long.bitCount(prazna);
+            for (; prazna != 0; prazna &= prazna - 1) {
+                long bit = Long.lowestOneBit(prazna);
+                int d = indeks(saDvojkom.stanja, ploca.kanonski(nakon | bit));
+                int c = indeks(saCetvorkom.stanja, ploca.kanonski(nakon | bit << 1));
+                ocekivano += VJEROVATNOCA_DVOJKE * saDvojkom.ocekivano[d] + (1 - VJEROVATNOCA_DVOJKE) * saCetvorkom.ocekivano[c];
+                pobjeda += VJEROVATNOCA_DVOJKE * saDvojkom.pobjeda[d] + (1 - VJEROVATNOCA_DVOJKE) * saCetvorkom.pobjeda[c];
+            }
+            najboljeOcekivano = Math.max(najboljeOcekivano, (potez >>> PakovanaPloca.POMAK_BODOVA) + ocekivano / praznih);
+            if (najveci < cilj) najboljaPobjeda = Math.max(najboljaPobjeda, pobjeda / praznih);
+        }
+        sloj.ocekivano[i] = najboljeOcekivano;
+        sloj.pobjeda[i] = najboljaPobjeda;
+    }
+
+    private static int indeks(long[] stanja, long stanje) {
+        int i = Arrays.binarySearch(stanja, stanje);
+        if (i < 0) throw new IllegalStateException("Sljedbenik nije nabrojan: " + Long.toHexString(stanje));
+        return i;
+    }
+
+    /**
+     * Sprema slojeve u datoteku za {@link TabelaRjesenja}: zaglavlje, opis svakog sloja
+     * (zbir, broj stanja, pomak) i zatim za svaki sloj sortirana stanja, očekivane rezultate
+     * i vjerovatnoće pobjede.
+     *
+     * @param datoteka Odredišna datoteka (prepisuje se).
+     * @throws IOException Ako pisanje ne uspije.
+     */
+    public void zapisi(Path datoteka) throws IOException {
+        long pomak = TabelaRjesenja.ZAGLAVLJE + (long) slojevi.size() * TabelaRjesenja.OPIS_SLOJA;
+        try (FileChannel kanal = FileChannel.open(datoteka, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer zaglavlje = ByteBuffer.allocate((int) pomak);
+            zaglavlje.putInt(TabelaRjesenja.MAGIJA).putInt(TabelaRjesenja.VERZIJA)
+                    .putInt(ploca.getVelicina()).putInt(cilj).putInt(slojevi.size()).putInt(0);
+            for (Sloj sloj : slojevi.values()) {
+                zaglavlje.putInt(sloj.zbir).putInt(sloj.stanja.length).putLong(pomak);
+                pomak += (long) sloj.stanja.length * TabelaRjesenja.BAJTOVA_PO_STANJU;
+            }
+            zaglavlje.flip();
+            while (zaglavlje.hasRemaining()) {
+                kanal.write(zaglavlje);
+            }
+            long pozicija = zaglavlje.limit();
+            for (Sloj sloj : slojevi.values()) {
+                int broj = sloj.stanja.length;
+                MappedByteBuffer blok = kanal.map(FileChannel.MapMode.READ_WRITE, pozicija,
+                        (long) broj * TabelaRjesenja.BAJTOVA_PO_STANJU);
+                blok.asLongBuffer().put(sloj.stanja);
+                blok.position(broj * Long.BYTES);
+                DoubleBuffer vrijednosti = blok.slice().asDoubleBuffer();
+                vrijednosti.put(sloj.ocekivano).put(sloj.pobjeda);
+                blok.force();
+                pozicija += (long) broj * TabelaRjesenja.BAJTOVA_PO_STANJU;
+            }
+        }
+    }
+}
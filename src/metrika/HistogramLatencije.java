@@ -0,0 +1,143 @@
+package metrika;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Klasa `HistogramLatencije` bilježi trajanja (u nanosekundama) u fiksnom broju
+ * log-linearnih korpi: svaki stepen dvojke je podijeljen na 16 jednakih korpi, pa je
+ * relativna greška percentila ispod 1/16, a memorija je ista bez obzira na broj zapisa.
+ * Zapis je bez zaključavanja i može se pozivati iz više niti istovremeno: korpe su
+ * podijeljene u trake po niti, pa niti koje bilježe slična trajanja ne dijele isti brojač.
+ */
+public class HistogramLatencije {
+
+    /** Broj korpi po stepenu dvojke (mora biti stepen dvojke). */
+    private static final int PODKORPE = 16;
+
+    /** Broj bita koji određuje podkorpu. */
+    private static final int BITI_PODKORPE = 4;
+
+    /** Ukupan broj korpi: vrijednosti 0..15 direktno, zatim 16 korpi za svaki viši stepen dvojke. */
+    private static final int BROJ_KORPI = (64 - BITI_PODKORPE) * PODKORPE;
+
+    /** Broj traka (stepen dvojke, najviše 8). */
+    private static final int TRAKE = Math.min(8, Integer.highestOneBit(Runtime.getRuntime().availableProcessors()));
+
+    /** Brojači po korpama, traka za trakom. */
+    private final AtomicLongArray korpe = new AtomicLongArray(TRAKE * BROJ_KORPI);
+
+    /** Ukupan broj zapisa. */
+    private final LongAdder broj = new LongAdder();
+
+    /** Zbir svih zapisanih vrijednosti. */
+    private final LongAdder zbir = new LongAdder();
+
+    /**
+     * Bilježi jedno trajanje.
+     *
+     * @param nanos Trajanje u nanosekundama (negativne vrijednosti se bilježe kao 0).
+     */
+    public void zabiljezi(long nanos) {
+        long vrijednost = Math.max(0, nanos);
+        int traka = (int) Thread.currentThread().threadId() & (TRAKE - 1);
+        korpe.incrementAndGet(traka * BROJ_KORPI + indeks(vrijednost));
+        broj.increment();
+        zbir.add(vrijednost);
+    }
+
+    /**
+     * Vraća broj zapisa.
+     *
+     * @return Ukupan broj zabilježenih trajanja.
+     */
+    public long broj() {
+        return broj.sum();
+    }
+
+    /**
+     * Vraća prosječno trajanje.
+     *
+     * @return Prosjek u nanosekundama, ili 0 ako nema zapisa.
+     */
+    public double prosjek() {
+        long n = broj.sum();
+        return n == 0 ? 0 : (double) zbir.sum() / n;
+    }
+
+    /**
+     * Vraća približnu vrijednost zadanog percentila (gornju granicu korpe u kojoj se nalazi).
+     *
+     * @param percentil Percentil između 0 i 100 (npr. 99).
+     * @return Trajanje u nanosekundama, ili 0 ako nema zapisa.
+     */
+    public long percentil(double percentil) {
+        long[] kopija = snimak();
+        long ukupno = 0;
+        for (long k : kopija) ukupno += k;
+        if (ukupno == 0) return 0;
+        long prag = (long) Math.ceil(ukupno * Math.min(100.0, Math.max(0.0, percentil)) / 100.0);
+        long kumulativno = 0;
+        for (int i = 0; i < kopija.length; i++) {
+            kumulativno += kopija[i];
+            if (kumulativno >= Math.max(1, prag)) return gornjaGranica(i);
+        }
+        return gornjaGranica(kopija.length - 1);
+    }
+
+    /**
+     * Vraća kopiju brojača po korpama (npr. za izvoz ili spajanje).
+     *
+     * @return Niz brojača dužine {@link #brojKorpi()}.
+     */
+    public long[] snimak() {
+        long[] kopija = new long[BROJ_KORPI];
+        for (int i = 0; i < korpe.length(); i++) {
+            kopija[i % BROJ_KORPI] += korpe.get(i);
+        }
+        return kopija;
+    }
+
+    /**
+     * Vraća broj korpi histograma.
+     *
+     * @return Broj korpi.
+     */
+    public static int brojKorpi() {
+        return BROJ_KORPI;
+    }
+
+    /**
+     * Briše sve zapise.
+     */
+    public void resetuj() {
+        for (int i = 0; i < korpe.length(); i++) {
+            korpe.set(i, 0);
+        }
+        broj.reset();
+        zbir.reset();
+    }
+
+    /**
+     * Računa korpu za vrijednost: prvih 16 vrijednosti ima vlastite korpe, a iznad toga
+     * korpu određuju najviši postavljeni bit i četiri bita ispod njega.
+     */
+    static int indeks(long vrijednost) {
+        if (vrijednost < PODKORPE) return (int) vrijednost;
+        int stepen = 63 - Long.numberOfLeadingZeros(vrijednost);
+        int podkorpa = (int) (vrijednost >>> (stepen - BITI_PODKORPE)) & (PODKORPE - 1);
+        return (stepen - BITI_PODKORPE + 1) * PODKORPE + podkorpa;
+    }
+
+    /**
+     * Vraća najveću vrijednost koja pada u zadanu korpu.
+     */
+    static long gornjaGranica(int indeks) {
+        if (indeks < PODKORPE) return indeks;
+        int stepen = indeks / PODKORPE + BITI_PODKORPE - 1;
+        long podkorpa = indeks % PODKORPE;
+        long sirina = 1L << (stepen - BITI_PODKORPE);
+        long donja = (1L << stepen) + podkorpa * sirina;
+        return donja + sirina - 1;
+    }
+}
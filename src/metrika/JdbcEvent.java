@@ -0,0 +1,25 @@
+package metrika;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR događaj za jedan poziv baze podataka (povezivanje, upis rezultata, čitanje highscore liste).
+ */
+@Name("igra2048.Jdbc")
+@Label("JDBC poziv")
+@Category({"Igra 2048", "Baza podataka"})
+@Description("Povezivanje sa bazom, upis rezultata ili čitanje highscore liste")
+public class JdbcEvent extends jdk.jfr.Event {
+
+    @Label("Operacija")
+    public String operacija;
+
+    @Label("Broj redova")
+    public long redova;
+
+    @Label("Uspješno")
+    public boolean uspjesno;
+}
@@ -0,0 +1,295 @@
+package metrika;
+
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Klasa `MetrikeIgre` prikuplja metrike igre i objavljuje ih kao MBean
+ * {@code igra_2048:type=MetrikeIgre} (vidljiv npr. u JConsole ili VisualVM).
+ * Brojači su `LongAdder` (trake po niti, bez zaključavanja), a trajanja se bilježe u
+ * histograme fiksne veličine, pa je bilježenje jeftino i na putanji svakog poteza.
+ */
+public final class MetrikeIgre implements MetrikeIgreMXBean {
+
+    /** Naziv pod kojim se MBean registruje. */
+    public static final String NAZIV = "igra_2048:type=MetrikeIgre";
+
+    /** Nazivi smjerova, redom kao konstante u `Logika2048`. */
+    private static final String[] SMJEROVI = {"gore", "lijevo", "dolje", "desno"};
+
+    private final LongAdder[] potezi = {new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder()};
+    private final HistogramLatencije trajanjePoteza = new HistogramLatencije();
+    private final LongAdder novePlocice = new LongAdder();
+    private final LongAdder ponovljeniIzbori = new LongAdder();
+    private final HistogramLatencije provjeraKraja = new HistogramLatencije();
+    private final HistogramLatencije spremanje = new HistogramLatencije();
+    private final LongAdder spremljenoBajtova = new LongAdder();
+    private final HistogramLatencije ucitavanje = new HistogramLatencije();
+    private final LongAdder ucitanoBajtova = new LongAdder();
+    private final HistogramLatencije jdbcPovezivanje = new HistogramLatencije();
+    private final HistogramLatencije jdbcUpis = new HistogramLatencije();
+    private final LongAdder jdbcGreske = new LongAdder();
+
+    /** Stanje brojača poteza pri prethodnom čitanju brzine (za računanje poteza u sekundi). */
+    private long[] prethodniPotezi = new long[SMJEROVI.length];
+    private long prethodnoVrijeme = System.nanoTime();
+
+    /** Jedina instanca se kreira i registruje pri prvoj upotrebi. */
+    private static final class Drzac {
+        private static final MetrikeIgre INSTANCA = registruj(new MetrikeIgre());
+    }
+
+    private MetrikeIgre() {
+    }
+
+    /**
+     * Vraća zajedničku instancu metrika.
+     *
+     * @return Metrike igre za cijeli JVM.
+     */
+    public static MetrikeIgre get() {
+        return Drzac.INSTANCA;
+    }
+
+    private static MetrikeIgre registruj(MetrikeIgre metrike) {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(metrike, new ObjectName(NAZIV));
+        } catch (JMException | SecurityException e) {
+            System.err.println("Greška pri registraciji metrika: " + e.getMessage());
+        }
+        return metrike;
+    }
+
+    // Bilježenje
+
+    /**
+     * Bilježi izvršen potez.
+     *
+     * @param smjer Smjer poteza (konstanta iz `Logika2048`).
+     * @param nanos Trajanje poteza u nanosekundama.
+     */
+    public void potez(int smjer, long nanos) {
+        potezi[smjer].increment();
+        trajanjePoteza.zabiljezi(nanos);
+    }
+
+    /**
+     * Bilježi dodanu pločicu.
+     *
+     * @param ponovljenihIzbora Koliko puta je nasumično izabrano već zauzeto polje.
+     */
+    public void novaPlocica(int ponovljenihIzbora) {
+        novePlocice.increment();
+        if (ponovljenihIzbora > 0) ponovljeniIzbori.add(ponovljenihIzbora);
+    }
+
+    /**
+     * Bilježi provjeru kraja igre.
+     *
+     * @param nanos Trajanje provjere u nanosekundama.
+     */
+    public void provjeraKraja(long nanos) {
+        provjeraKraja.zabiljezi(nanos);
+    }
+
+    /**
+     * Bilježi spremanje igre u datoteku.
+     *
+     * @param nanos Trajanje u nanosekundama.
+     * @param bajtova Veličina spremljene datoteke.
+     */
+    public void spremanje(long nanos, long bajtova) {
+        spremanje.zabiljezi(nanos);
+        spremljenoBajtova.add(bajtova);
+    }
+
+    /**
+     * Bilježi učitavanje igre iz datoteke.
+     *
+     * @param nanos Trajanje u nanosekundama.
+     * @param bajtova Veličina učitane datoteke.
+     */
+    public void ucitavanje(long nanos, long bajtova) {
+        ucitavanje.zabiljezi(nanos);
+        ucitanoBajtova.add(bajtova);
+    }
+
+    /**
+     * Bilježi pokušaj povezivanja sa bazom podataka.
+     *
+     * @param nanos Trajanje u nanosekundama.
+     * @param uspjesno Da li je veza uspostavljena.
+     */
+    public void jdbcPovezivanje(long nanos, boolean uspjesno) {
+        jdbcPovezivanje.zabiljezi(nanos);
+        if (!uspjesno) jdbcGreske.increment();
+    }
+
+    /**
+     * Bilježi upis rezultata u bazu podataka.
+     *
+     * @param nanos Trajanje u nanosekundama.
+     * @param uspjesno Da li je upis uspio.
+     */
+    public void jdbcUpis(long nanos, boolean uspjesno) {
+        jdbcUpis.zabiljezi(nanos);
+        if (!uspjesno) jdbcGreske.increment();
+    }
+
+    // Atributi MBean-a
+
+    @Override
+    public Map<String, Long> getBrojPotezaPoSmjeru() {
+        Map<String, Long> rezultat = new LinkedHashMap<>();
+        for (int i = 0; i < SMJEROVI.length; i++) {
+            rezultat.put(SMJEROVI[i], potezi[i].sum());
+        }
+        return rezultat;
+    }
+
+    @Override
+    public synchronized Map<String, Double> getPotezaUSekundiPoSmjeru() {
+        long sada = System.nanoTime();
+        double sekunde = Math.max(1e-9, (sada - prethodnoVrijeme) / 1e9);
+        Map<String, Double> rezultat = new LinkedHashMap<>();
+        long[] trenutni = new long[SMJEROVI.length];
+        for (int i = 0; i < SMJEROVI.length; i++) {
+            trenutni[i] = potezi[i].sum();
+            rezultat.put(SMJEROVI[i], (trenutni[i] - prethodniPotezi[i]) / sekunde);
+        }
+        prethodniPotezi = trenutni;
+        prethodnoVrijeme = sada;
+        return rezultat;
+    }
+
+    @Override
+    public double getPotezProsjekMikros() {
+        return trajanjePoteza.prosjek() / 1e3;
+    }
+
+    @Override
+    public double getPotezP50Mikros() {
+        return trajanjePoteza.percentil(50) / 1e3;
+    }
+
+    @Override
+    public double getPotezP99Mikros() {
+        return trajanjePoteza.percentil(99) / 1e3;
+    }
+
+    @Override
+    public double getPotezP999Mikros() {
+        return trajanjePoteza.percentil(99.9) / 1e3;
+    }
+
+    @Override
+    public long getBrojNovihPlocica() {
+        return novePlocice.sum();
+    }
+
+    @Override
+    public long getPonovljenihIzboraPolja() {
+        return ponovljeniIzbori.sum();
+    }
+
+    @Override
+    public long getBrojProvjeraKraja() {
+        return provjeraKraja.broj();
+    }
+
+    @Override
+    public double getProvjeraKrajaProsjekMikros() {
+        return provjeraKraja.prosjek() / 1e3;
+    }
+
+    @Override
+    public double getProvjeraKrajaP99Mikros() {
+        return provjeraKraja.percentil(99) / 1e3;
+    }
+
+    @Override
+    public long getBrojSpremanja() {
+        return spremanje.broj();
+    }
+
+    @Override
+    public double getSpremanjeProsjekMs() {
+        return spremanje.prosjek() / 1e6;
+    }
+
+    @Override
+    public long getSpremljenoBajtova() {
+        return spremljenoBajtova.sum();
+    }
+
+    @Override
+    public long getBrojUcitavanja() {
+        return ucitavanje.broj();
+    }
+
+    @Override
+    public double getUcitavanjeProsjekMs() {
+        return ucitavanje.prosjek() / 1e6;
+    }
+
+    @Override
+    public long getUcitanoBajtova() {
+        return ucitanoBajtova.sum();
+    }
+
+    @Override
+    public long getBrojJdbcPovezivanja() {
+        return jdbcPovezivanje.broj();
+    }
+
+    @Override
+    public double getJdbcPovezivanjeProsjekMs() {
+        return jdbcPovezivanje.prosjek() / 1e6;
+    }
+
+    @Override
+    public double getJdbcPovezivanjeP99Ms() {
+        return jdbcPovezivanje.percentil(99) / 1e6;
+    }
+
+    @Override
+    public long getBrojJdbcUpisa() {
+        return jdbcUpis.broj();
+    }
+
+    @Override
+    public double getJdbcUpisProsjekMs() {
+        return jdbcUpis.prosjek() / 1e6;
+    }
+
+    @Override
+    public double getJdbcUpisP99Ms() {
+        return jdbcUpis.percentil(99) / 1e6;
+    }
+
+    @Override
+    public long getBrojJdbcGresaka() {
+        return jdbcGreske.sum();
+    }
+
+    @Override
+    public synchronized void resetuj() {
+        for (LongAdder brojac : potezi) brojac.reset();
+        prethodniPotezi = new long[SMJEROVI.length];
+        trajanjePoteza.resetuj();
+        novePlocice.reset();
+        ponovljeniIzbori.reset();
+        provjeraKraja.resetuj();
+        spremanje.resetuj();
+        spremljenoBajtova.reset();
+        ucitavanje.resetuj();
+        ucitanoBajtova.reset();
+        jdbcPovezivanje.resetuj();
+        jdbcUpis.resetuj();
+        jdbcGreske.reset();
+    }
+}
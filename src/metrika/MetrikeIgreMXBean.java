@@ -0,0 +1,136 @@
+package metrika;
+
+import java.util.Map;
+
+/**
+ * JMX pogled na metrike igre 2048 (poteze, nove pločice, provjeru kraja igre,
+ * spremanje i učitavanje igre i pozive baze podataka).
+ * Vremena su u mikrosekundama ili milisekundama, kako je navedeno u nazivu atributa.
+ */
+public interface MetrikeIgreMXBean {
+
+    /**
+     * @return Ukupan broj poteza po smjeru (gore, lijevo, dolje, desno).
+     */
+    Map<String, Long> getBrojPotezaPoSmjeru();
+
+    /**
+     * @return Broj poteza u sekundi po smjeru od prethodnog čitanja ovog atributa.
+     */
+    Map<String, Double> getPotezaUSekundiPoSmjeru();
+
+    /**
+     * @return Prosječno trajanje poteza u mikrosekundama.
+     */
+    double getPotezProsjekMikros();
+
+    /**
+     * @return Medijan trajanja poteza u mikrosekundama.
+     */
+    double getPotezP50Mikros();
+
+    /**
+     * @return 99. percentil trajanja poteza u mikrosekundama.
+     */
+    double getPotezP99Mikros();
+
+    /**
+     * @return 99.9. percentil trajanja poteza u mikrosekundama.
+     */
+    double getPotezP999Mikros();
+
+    /**
+     * @return Broj dodanih pločica.
+     */
+    long getBrojNovihPlocica();
+
+    /**
+     * @return Broj ponovljenih nasumičnih izbora polja pri dodavanju pločice (pogođeno zauzeto polje).
+     */
+    long getPonovljenihIzboraPolja();
+
+    /**
+     * @return Broj provjera kraja igre.
+     */
+    long getBrojProvjeraKraja();
+
+    /**
+     * @return Prosječno trajanje provjere kraja igre u mikrosekundama.
+     */
+    double getProvjeraKrajaProsjekMikros();
+
+    /**
+     * @return 99. percentil trajanja provjere kraja igre u mikrosekundama.
+     */
+    double getProvjeraKrajaP99Mikros();
+
+    /**
+     * @return Broj spremanja igre.
+     */
+    long getBrojSpremanja();
+
+    /**
+     * @return Prosječno trajanje spremanja igre u milisekundama.
+     */
+    double getSpremanjeProsjekMs();
+
+    /**
+     * @return Ukupan broj spremljenih bajtova.
+     */
+    long getSpremljenoBajtova();
+
+    /**
+     * @return Broj učitavanja igre.
+     */
+    long getBrojUcitavanja();
+
+    /**
+     * @return Prosječno trajanje učitavanja igre u milisekundama.
+     */
+    double getUcitavanjeProsjekMs();
+
+    /**
+     * @return Ukupan broj učitanih bajtova.
+     */
+    long getUcitanoBajtova();
+
+    /**
+     * @return Broj JDBC povezivanja.
+     */
+    long getBrojJdbcPovezivanja();
+
+    /**
+     * @return Prosječno trajanje JDBC povezivanja u milisekundama.
+     */
+    double getJdbcPovezivanjeProsjekMs();
+
+    /**
+     * @return 99. percentil trajanja JDBC povezivanja u milisekundama.
+     */
+    double getJdbcPovezivanjeP99Ms();
+
+    /**
+     * @return Broj upisa rezultata u bazu.
+     */
+    long getBrojJdbcUpisa();
+
+    /**
+     * @return Prosječno trajanje upisa rezultata u milisekundama.
+     */
+    double getJdbcUpisProsjekMs();
+
+    /**
+     * @return 99. percentil trajanja upisa rezultata u milisekundama.
+     */
+    double getJdbcUpisP99Ms();
+
+    /**
+     * @return Broj neuspjelih poziva baze podataka.
+     */
+    long getBrojJdbcGresaka();
+
+    /**
+     * Briše sve prikupljene metrike.
+     */
+    void resetuj();
+}
@@ -0,0 +1,54 @@
+package metrika;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Klasa `MjerenjeStarta` mjeri vrijeme od pokretanja procesa do prvog prikaza prozora
+ * i trajanje prvog poteza, i ispisuje ih jednom u konzolu (npr. da se primijete
+ * usporenja pokretanja između verzija). Namjerno ne koristi JMX, da samo mjerenje ne
+ * produži pokretanje.
+ */
+public final class MjerenjeStarta {
+
+    private static final AtomicBoolean PRVI_PRIKAZ = new AtomicBoolean();
+    private static final AtomicBoolean PRVA_IGRA = new AtomicBoolean();
+    private static final AtomicBoolean PRVI_POTEZ = new AtomicBoolean();
+
+    private MjerenjeStarta() {
+    }
+
+    /**
+     * Bilježi prikaz prozora; ispisuje se samo prvi prikaz prijave i prvi prikaz igre.
+     *
+     * @param prozor Naziv prozora ("prijava" ili "igra").
+     */
+    public static void prikazan(String prozor) {
+        AtomicBoolean zastavica = prozor.equals("igra") ? PRVA_IGRA : PRVI_PRIKAZ;
+        if (!zastavica.compareAndSet(false, true)) return;
+        long ms = odPokretanjaMs();
+        if (ms >= 0) System.out.printf("Start: od pokretanja do prvog prikaza (%s): %d ms%n", prozor, ms);
+    }
+
+    /**
+     * Bilježi trajanje poteza (od tipke do osvježenog prikaza); ispisuje se samo prvi potez.
+     *
+     * @param nanos Trajanje u nanosekundama.
+     */
+    public static void potez(long nanos) {
+        if (!PRVI_POTEZ.compareAndSet(false, true)) return;
+        System.out.printf("Start: prvi potez %.2f ms (od pokretanja %d ms)%n", nanos / 1e6, odPokretanjaMs());
+    }
+
+    /**
+     * Vraća vrijeme od pokretanja procesa.
+     *
+     * @return Milisekunde, ili -1 ako operativni sistem ne daje vrijeme pokretanja.
+     */
+    public static long odPokretanjaMs() {
+        return ProcessHandle.current().info().startInstant()
+                .map(pocetak -> Duration.between(pocetak, Instant.now()).toMillis())
+                .orElse(-1L);
+    }
+}
@@ -0,0 +1,30 @@
+package metrika;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR događaj za dodavanje nove nasumične pločice.
+ */
+@Name("igra2048.NovaPlocica")
+@Label("Nova pločica")
+@Category({"Igra 2048", "Logika"})
+@Description("Dodavanje nasumične pločice i broj pogođenih zauzetih polja")
+@StackTrace(false)
+public class NovaPlocicaEvent extends jdk.jfr.Event {
+
+    @Label("Vrijednost")
+    public int vrijednost;
+
+    @Label("Red")
+    public int red;
+
+    @Label("Kolona")
+    public int kolona;
+
+    @Label("Ponovljeni izbori polja")
+    public int ponovljenihIzbora;
+}
@@ -0,0 +1,31 @@
+package metrika;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR događaj za jedan potez u `Logika2048` (pomjeranje i nova pločica).
+ * Kada snimanje nije uključeno, JIT uklanja kreiranje događaja pa potez ne plaća ništa.
+ */
+@Name("igra2048.Potez")
+@Label("Potez")
+@Category({"Igra 2048", "Logika"})
+@Description("Jedan potez igre: smjer, veličina ploče, promjena i prirast rezultata")
+@StackTrace(false)
+public class PotezEvent extends jdk.jfr.Event {
+
+    @Label("Smjer")
+    public String smjer;
+
+    @Label("Veličina ploče")
+    public int velicinaPloce;
+
+    @Label("Ploča promijenjena")
+    public boolean promjena;
+
+    @Label("Prirast rezultata")
+    public int prirastRezultata;
+}
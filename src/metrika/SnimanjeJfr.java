@@ -0,0 +1,47 @@
+package metrika;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * Klasa `SnimanjeJfr` pokreće JFR snimanje sa postavkama `igra2048.jfc` iz classpath-a
+ * kada je zadano svojstvo {@code -Digra2048.jfr=<datoteka.jfr>}. Snimak se zapisuje
+ * u datoteku pri gašenju JVM-a.
+ */
+public final class SnimanjeJfr {
+
+    /** Sistemsko svojstvo sa putanjom izlazne datoteke. */
+    public static final String SVOJSTVO = "igra2048.jfr";
+
+    private SnimanjeJfr() {
+    }
+
+    /**
+     * Pokreće snimanje ako je svojstvo {@value #SVOJSTVO} postavljeno, inače ne radi ništa.
+     */
+    public static void pokreniAkoJeZatrazeno() {
+        String datoteka = System.getProperty(SVOJSTVO);
+        if (datoteka == null || datoteka.isBlank()) return;
+        try (InputStream ulaz = SnimanjeJfr.class.getResourceAsStream("igra2048.jfc")) {
+            if (ulaz == null) {
+                System.err.println("JFR postavke igra2048.jfc nisu pronađene.");
+                return;
+            }
+            Configuration postavke = Configuration.create(new InputStreamReader(ulaz, StandardCharsets.UTF_8));
+            Recording snimanje = new Recording(postavke);
+            snimanje.setName("Igra 2048");
+            snimanje.setDestination(Path.of(datoteka));
+            snimanje.setDumpOnExit(true);
+            snimanje.start();
+            System.out.println("JFR snimanje pokrenuto, snimak: " + datoteka);
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            System.err.println("Greška pri pokretanju JFR snimanja: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package metrika;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * JFR događaj za spremanje ili učitavanje stanja igre iz datoteke.
+ */
+@Name("igra2048.Spremanje")
+@Label("Spremanje igre")
+@Category({"Igra 2048", "Datoteke"})
+@Description("Spremanje ili učitavanje stanja igre (saveState / loadState)")
+public class SpremanjeEvent extends jdk.jfr.Event {
+
+    @Label("Operacija")
+    public String operacija;
+
+    @Label("Putanja")
+    public String putanja;
+
+    @Label("Bajtova")
+    @DataAmount
+    public long bajtova;
+
+    @Label("Uspješno")
+    public boolean uspjesno;
+}
@@ -7,4 +7,9 @@
 module igra_2048 {
 	requires java.desktop;
 	requires java.sql;
+	requires java.management;
+	requires jdk.jfr;
+
+	// JMX čita atribute metrika preko interfejsa MetrikeIgreMXBean, a JFR registruje događaje iz istog paketa
+	exports metrika to java.management, jdk.jfr;
 }
\ No newline at end of file
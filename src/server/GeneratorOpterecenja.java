@@ -0,0 +1,176 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import metrika.HistogramLatencije;
+import metrika.SnimanjeJfr;
+
+/**
+ * Klasa `GeneratorOpterecenja` opterećuje `IgraServer` sa sve većim brojem istovremenih sesija.
+ * Svaka sesija ima vlastitu vezu na virtuelnoj niti i šalje nasumične poteze jedan za drugim.
+ * Za svaki korak ispisuje ostvareni broj poteza u sekundi, latenciju (p50, p99, najveća) i broj
+ * sesija koje su prekinute greškom; prva greška koraka ispisuje se na standardni izlaz za greške.
+ *
+ * Pokretanje: {@code java server.GeneratorOpterecenja [-adresa host:port] [-trajanje sekundi] [brojSesija ...]}.
+ * Bez adrese pokreće server u istom JVM-u na lokalnoj adresi.
+ */
+public class GeneratorOpterecenja {
+
+    /** Potezi u protokolu servera. */
+    private static final String[] POTEZI = {"w", "a", "s", "d"};
+
+    /** Veličina ploče za svaku sesiju. */
+    private static final int VELICINA = 4;
+
+    /**
+     * Glavna metoda koja redom izvršava korake opterećenja.
+     *
+     * @param args Opcije i broj sesija po koraku (podrazumijevano 10, 100 i 1000).
+     * @throws Exception ako server nije dostupan.
+     */
+    public static void main(String[] args) throws Exception {
+        SnimanjeJfr.pokreniAkoJeZatrazeno();
+        String host = "localhost";
+        int port = -1;
+        int trajanje = 5;
+        List<Integer> koraci = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-adresa")) {
+                String[] adresa = args[++i].split(":");
+                host = adresa[0];
+                port = Integer.parseInt(adresa[1]);
+            } else if (args[i].equals("-trajanje")) {
+                trajanje = Integer.parseInt(args[++i]);
+            } else {
+                koraci.add(Integer.parseInt(args[i]));
+            }
+        }
+        if (koraci.isEmpty()) koraci = List.of(10, 100, 1000);
+
+        IgraServer ugradjeni = null;
+        if (port < 0) {
+            ugradjeni = new IgraServer(0);
+            ugradjeni.pokreni();
+            port = ugradjeni.getPort();
+        }
+
+        System.out.printf("%8s %12s %10s %10s %10s %8s%n", "sesije", "potezi/s", "p50 (µs)", "p99 (µs)", "maks (µs)", "greske");
+        for (int brojSesija : koraci) {
+            izvrsiKorak(host, port, brojSesija, trajanje);
+        }
+        if (ugradjeni != null) ugradjeni.close();
+    }
+
+    /**
+     * Izvršava jedan korak: sve sesije se povežu, zatim istovremeno šalju poteze zadano vrijeme.
+     */
+    private static void izvrsiKorak(String host, int port, int brojSesija, int trajanje) throws InterruptedException {
+        HistogramLatencije latencije = new HistogramLatencije();
+        LongAdder potezi = new LongAdder();
+        LongAdder greske = new LongAdder();
+        AtomicReference<String> prvaGreska = new AtomicReference<>();
+        CountDownLatch povezani = new CountDownLatch(brojSesija);
+        CountDownLatch start = new CountDownLatch(1);
+        long[] kraj = new long[1];
+
+        try (ExecutorService klijenti = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < brojSesija; i++) {
+                long sjeme = i;
+                klijenti.submit(() -> {
+                    try {
+                        igraj(host, port, sjeme, povezani, start, kraj, latencije, potezi);
+                    } catch (IOException e) {
+                        greske.increment();
+                        prvaGreska.compareAndSet(null, e.getMessage());
+                    }
+                    return null;
+                });
+            }
+            povezani.await();
+            long pocetak = System.nanoTime();
+            kraj[0] = pocetak + trajanje * 1_000_000_000L;
+            start.countDown();
+            klijenti.shutdown();
+            klijenti.awaitTermination(trajanje + 60L, TimeUnit.SECONDS);
+            double sekunde = (System.nanoTime() - pocetak) / 1e9;
+            System.out.printf("%8d %12.0f %10.1f %10.1f %10.1f %8d%n", brojSesija, potezi.sum() / sekunde,
+                    latencije.percentil(50) / 1e3, latencije.percentil(99) / 1e3, latencije.percentil(100) / 1e3,
+                    greske.sum());
+            if (prvaGreska.get() != null) System.err.println("Prva greška u koraku: " + prvaGreska.get());
+        }
+    }
+
+    /**
+     * Jedna klijentska sesija: kreira igru, čeka zajednički start i šalje poteze do isteka vremena.
+     * Kada igra završi, sesija se zatvara i otvara se nova.
+     */
+    private static void igraj(String host, int port, long sjeme, CountDownLatch povezani, CountDownLatch start,
+                              long[] kraj, HistogramLatencije latencije, LongAdder potezi) throws IOException, InterruptedException {
+        boolean prijavljen = false;
+        try (Socket veza = new Socket(host, port);
+             BufferedReader ulaz = new BufferedReader(new InputStreamReader(veza.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter izlaz = new BufferedWriter(new OutputStreamWriter(veza.getOutputStream(), StandardCharsets.UTF_8))) {
+            veza.setTcpNoDelay(true);
+            SplittableRandom random = new SplittableRandom(sjeme);
+            String id = novaIgra(izlaz, ulaz);
+            povezani.countDown();
+            prijavljen = true;
+            start.await();
+            while (System.nanoTime() < kraj[0]) {
+                long t0 = System.nanoTime();
+                String odgovor = posalji(izlaz, ulaz, "POTEZ " + id + " " + POTEZI[random.nextInt(4)]);
+                latencije.zabiljezi(System.nanoTime() - t0);
+                potezi.increment();
+                if (!odgovor.startsWith("OK")) {
+                    throw new IOException("Server je vratio grešku: " + odgovor);
+                }
+                if (odgovor.endsWith(" 1")) { // Igra je završena - počinje nova
+                    posalji(izlaz, ulaz, "ZAVRSI " + id);
+                    id = novaIgra(izlaz, ulaz);
+                }
+            }
+            posalji(izlaz, ulaz, "ZAVRSI " + id);
+        } finally {
+            if (!prijavljen) povezani.countDown(); // Ne blokira korak ako veza ne uspije
+        }
+    }
+
+    /**
+     * Kreira novu igru i vraća njen identifikator.
+     *
+     * @throws IOException Ako server ne odgovori sa "OK".
+     */
+    private static String novaIgra(BufferedWriter izlaz, BufferedReader ulaz) throws IOException {
+        String odgovor = posalji(izlaz, ulaz, "NOVA " + VELICINA);
+        if (!odgovor.startsWith("OK ")) {
+            throw new IOException("Server nije kreirao igru: " + odgovor);
+        }
+        return odgovor.substring(3);
+    }
+
+    /**
+     * Šalje jednu komandu i čeka odgovor.
+     */
+    private static String posalji(BufferedWriter izlaz, BufferedReader ulaz, String komanda) throws IOException {
+        izlaz.write(komanda);
+        izlaz.newLine();
+        izlaz.flush();
+        String odgovor = ulaz.readLine();
+        if (odgovor == null) throw new IOException("Server je zatvorio vezu");
+        return odgovor;
+    }
+}
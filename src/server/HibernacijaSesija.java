@@ -0,0 +1,167 @@
+package server;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import logika.Logika2048;
+
+/**
+ * Klasa `HibernacijaSesija` premješta neaktivne sesije sa heap-a u off-heap slabove.
+ * Pozadinska nit periodično uspavljuje sesije koje nisu imale potez duže od zadanog vremena,
+ * a ako rezidentnih sesija i dalje ima više od dozvoljenog broja, uspavljuje one kojima se
+ * najdavnije pristupilo (LRU). Sesija se budi pri sljedećem potezu ili čitanju ploče.
+ * Na heap-u uspavane sesije ostaje samo objekat `Sesija` sa brojem slota.
+ */
+public class HibernacijaSesija implements Closeable {
+
+    /** Slabovi po veličini ploče. */
+    private final ConcurrentHashMap<Integer, SlabPloca> slabovi = new ConcurrentHashMap<>();
+
+    /** Broj sesija čija je igra trenutno na heap-u. */
+    private final AtomicInteger rezidentnih = new AtomicInteger();
+
+    /** Broj uspavanih sesija. */
+    private final AtomicInteger hiberniranih = new AtomicInteger();
+
+    /** Vrijeme bez poteza nakon kojeg se sesija uspavljuje. */
+    private final long neaktivnostNanos;
+
+    /** Najveći broj rezidentnih sesija nakon pregleda. */
+    private final int maksRezidentnih;
+
+    /** Nit koja periodično pregleda sesije. */
+    private final ScheduledExecutorService cistac;
+
+    /**
+     * Pokreće periodični pregled zadanih sesija.
+     *
+     * @param sesije Pogled na sve sesije servera.
+     * @param neaktivnost Vrijeme bez poteza nakon kojeg se sesija uspavljuje.
+     * @param maksRezidentnih Najveći broj sesija koje ostaju na heap-u.
+     */
+    HibernacijaSesija(Collection<Sesija> sesije, Duration neaktivnost, int maksRezidentnih) {
+        this.neaktivnostNanos = neaktivnost.toNanos();
+        this.maksRezidentnih = maksRezidentnih;
+        this.cistac = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread nit = new Thread(r, "hibernacija-sesija");
+            nit.setDaemon(true);
+            return nit;
+        });
+        long period = Math.max(100, neaktivnost.toMillis() / 4);
+        cistac.scheduleWithFixedDelay(() -> pregledaj(sesije), period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Uspavljuje neaktivne sesije, a zatim najdavnije korištene dok broj rezidentnih
+     * ne padne na dozvoljeni. Sesije koje upravo izvršavaju potez se preskaču.
+     *
+     * @param sesije Sve sesije servera.
+     */
+    void pregledaj(Collection<Sesija> sesije) {
+        long granica = System.nanoTime() - neaktivnostNanos;
+        List<Sesija> aktivne = new ArrayList<>();
+        for (Sesija sesija : sesije) {
+            if (!sesija.hiberniraj(granica) && sesija.isRezidentna()) {
+                aktivne.add(sesija);
+            }
+        }
+        int visak = rezidentnih.get() - maksRezidentnih;
+        if (visak <= 0) return;
+        aktivne.sort((a, b) -> Long.compare(a.getZadnjiPristup(), b.getZadnjiPristup()));
+        for (int i = 0; i < aktivne.size() && visak > 0; i++) {
+            if (aktivne.get(i).hibernirajOdmah()) visak--;
+        }
+    }
+
+    /**
+     * Bilježi novu rezidentnu sesiju.
+     */
+    void novaSesija() {
+        rezidentnih.incrementAndGet();
+    }
+
+    /**
+     * Sprema igru u slab i vraća broj slota.
+     */
+    int uspavaj(Logika2048 igra) {
+        int velicina = igra.getSize();
+        int[] plocice = new int[velicina * velicina];
+        igra.copyCells(plocice);
+        int slot = slabovi.computeIfAbsent(velicina, SlabPloca::new).spremi(plocice, igra.getScore());
+        rezidentnih.decrementAndGet();
+        hiberniranih.incrementAndGet();
+        return slot;
+    }
+
+    /**
+     * Obnavlja igru iz slaba i oslobađa slot.
+     */
+    Logika2048 probudi(int velicina, int slot) {
+        int[] plocice = new int[velicina * velicina];
+        int rezultat = slabovi.get(velicina).ucitaj(slot, plocice);
+        hiberniranih.decrementAndGet();
+        rezidentnih.incrementAndGet();
+        return new Logika2048(velicina, plocice, rezultat);
+    }
+
+    /**
+     * Bilježi zatvaranje sesije; slot uspavane sesije se oslobađa.
+     *
+     * @param velicina Dimenzija ploče.
+     * @param slot Broj slota, ili -1 ako je sesija bila rezidentna.
+     */
+    void zatvorena(int velicina, int slot) {
+        if (slot < 0) {
+            rezidentnih.decrementAndGet();
+        } else {
+            slabovi.get(velicina).oslobodi(slot);
+            hiberniranih.decrementAndGet();
+        }
+    }
+
+    /**
+     * Vraća broj rezidentnih sesija.
+     *
+     * @return Broj sesija na heap-u.
+     */
+    public int brojRezidentnih() {
+        return rezidentnih.get();
+    }
+
+    /**
+     * Vraća broj uspavanih sesija.
+     *
+     * @return Broj sesija u slabovima.
+     */
+    public int brojHiberniranih() {
+        return hiberniranih.get();
+    }
+
+    /**
+     * Vraća ukupnu off-heap memoriju svih slabova.
+     *
+     * @return Broj bajtova.
+     */
+    public long offHeapBajtova() {
+        long ukupno = 0;
+        for (SlabPloca slab : slabovi.values()) {
+            ukupno += slab.alociranoBajtova();
+        }
+        return ukupno;
+    }
+
+    /**
+     * Zaustavlja periodični pregled.
+     */
+    @Override
+    public void close() {
+        cistac.shutdownNow();
+    }
+}
@@ -0,0 +1,236 @@
+package server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import logika.Logika2048;
+import metrika.SnimanjeJfr;
+
+/**
+ * Klasa `IgraServer` drži više istovremenih igara 2048 u jednom JVM-u.
+ * Svaka veza se obrađuje na vlastitoj virtuelnoj niti, a sesije se čuvaju u
+ * konkurentnoj mapi pod brojem sesije. Neaktivne sesije se uspavljuju u off-heap
+ * slabove ({@link HibernacijaSesija}) i bude se pri sljedećem potezu.
+ *
+ * Protokol je tekstualan, jedna komanda po redu:
+ * <ul>
+ *   <li>{@code NOVA <veličina>} - kreira igru, odgovor {@code OK <id>}</li>
+ *   <li>{@code POTEZ <id> <w|a|s|d>} - odgovor {@code OK <rezultat> <promjena 0/1> <kraj 0/1>}</li>
+ *   <li>{@code PLOCA <id>} - odgovor {@code OK <veličina> <rezultat> <pločice red po red>}</li>
+ *   <li>{@code ZAVRSI <id>} - uklanja sesiju, odgovor {@code OK}</li>
+ *   <li>{@code STANJE} - odgovor {@code OK <sesije> <rezidentne> <uspavane> <off-heap bajtova>}</li>
+ * </ul>
+ * Greške se vraćaju kao {@code GRESKA <poruka>}.
+ */
+public class IgraServer implements Closeable {
+
+    /** Podrazumijevani TCP port servera. */
+    public static final int PODRAZUMIJEVANI_PORT = 2048;
+
+    /** Podrazumijevano vrijeme bez poteza nakon kojeg se sesija uspavljuje. */
+    public static final Duration PODRAZUMIJEVANA_NEAKTIVNOST = Duration.ofSeconds(30);
+
+    /** Podrazumijevani najveći broj sesija na heap-u. */
+    public static final int PODRAZUMIJEVANO_REZIDENTNIH = 100_000;
+
+    /** Najveća dozvoljena veličina ploče za jednu sesiju. */
+    private static final int MAKS_VELICINA = 64;
+
+    /** Serverski soket, vezan samo na lokalnu adresu. */
+    private final ServerSocket serverSocket;
+
+    /** Aktivne sesije po identifikatoru. */
+    private final ConcurrentHashMap<Long, Sesija> sesije = new ConcurrentHashMap<>();
+
+    /** Generator identifikatora sesija. */
+    private final AtomicLong sljedeciId = new AtomicLong(1);
+
+    /** Uspavljivanje neaktivnih sesija. */
+    private final HibernacijaSesija hibernacija;
+
+    /** Izvršilac koji svaku vezu pokreće na novoj virtuelnoj niti. */
+    private final ExecutorService veze = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Otvara serverski soket na lokalnoj adresi.
+     *
+     * @param port TCP port (0 za bilo koji slobodan port).
+     * @throws IOException ako se soket ne može otvoriti.
+     */
+    public IgraServer(int port) throws IOException {
+        this(port, PODRAZUMIJEVANA_NEAKTIVNOST, PODRAZUMIJEVANO_REZIDENTNIH);
+    }
+
+    /**
+     * Otvara serverski soket na lokalnoj adresi sa zadanim pravilima uspavljivanja sesija.
+     *
+     * @param port TCP port (0 za bilo koji slobodan port).
+     * @param neaktivnost Vrijeme bez poteza nakon kojeg se sesija uspavljuje.
+     * @param maksRezidentnih Najveći broj sesija koje ostaju na heap-u.
+     * @throws IOException ako se soket ne može otvoriti.
+     */
+    public IgraServer(int port, Duration neaktivnost, int maksRezidentnih) throws IOException {
+        serverSocket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        hibernacija = new HibernacijaSesija(sesije.values(), neaktivnost, maksRezidentnih);
+    }
+
+    /**
+     * Vraća port na kojem server sluša.
+     *
+     * @return Broj porta.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Vraća broj aktivnih sesija.
+     *
+     * @return Broj sesija.
+     */
+    public int brojSesija() {
+        return sesije.size();
+    }
+
+    /**
+     * Vraća skladište uspavanih sesija (broj rezidentnih i uspavanih, off-heap memorija).
+     *
+     * @return Hibernacija sesija servera.
+     */
+    public HibernacijaSesija getHibernacija() {
+        return hibernacija;
+    }
+
+    /**
+     * Pokreće prihvatanje veza na zasebnoj virtuelnoj niti i odmah se vraća.
+     */
+    public void pokreni() {
+        Thread.ofVirtual().name("igra-server").start(this::prihvataj);
+    }
+
+    /**
+     * Prihvata veze dok se soket ne zatvori.
+     */
+    private void prihvataj() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket veza = serverSocket.accept();
+                veze.submit(() -> obradiVezu(veza));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Greška pri prihvatanju veze: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Čita komande sa veze i odgovara na svaku sve dok klijent ne zatvori vezu.
+     *
+     * @param veza Soket klijenta.
+     */
+    private void obradiVezu(Socket veza) {
+        try (veza;
+             BufferedReader ulaz = new BufferedReader(new InputStreamReader(veza.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter izlaz = new BufferedWriter(new OutputStreamWriter(veza.getOutputStream(), StandardCharsets.UTF_8))) {
+            veza.setTcpNoDelay(true);
+            String linija;
+            while ((linija = ulaz.readLine()) != null) {
+                izlaz.write(obradiKomandu(linija));
+                izlaz.newLine();
+                izlaz.flush();
+            }
+        } catch (SocketException e) {
+            // Klijent je prekinuo vezu
+        } catch (IOException e) {
+            System.err.println("Greška na vezi: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Izvršava jednu komandu protokola.
+     *
+     * @param linija Primljena komanda.
+     * @return Odgovor koji se šalje klijentu.
+     */
+    String obradiKomandu(String linija) {
+        String[] dijelovi = linija.trim().split("\\s+");
+        try {
+            switch (dijelovi[0]) {
+                case "NOVA": {
+                    int velicina = dijelovi.length > 1 ? Integer.parseInt(dijelovi[1]) : 4;
+                    if (velicina < 2 || velicina > MAKS_VELICINA) {
+                        return "GRESKA veličina mora biti između 2 i " + MAKS_VELICINA;
+                    }
+                    long id = sljedeciId.getAndIncrement();
+                    sesije.put(id, new Sesija(id, velicina, hibernacija));
+                    return "OK " + id;
+                }
+                case "POTEZ": {
+                    if (dijelovi.length < 3) return "GRESKA očekuje se POTEZ <id> <w|a|s|d>";
+                    Sesija sesija = sesije.get(Long.parseLong(dijelovi[1]));
+                    if (sesija == null) return "GRESKA nepoznata sesija";
+                    int smjer = Logika2048.directionOf(dijelovi[2]);
+                    if (smjer < 0) return "GRESKA neispravan potez, koristite 'w', 'a', 's' ili 'd'";
+                    return sesija.potez(smjer);
+                }
+                case "PLOCA": {
+                    if (dijelovi.length < 2) return "GRESKA očekuje se PLOCA <id>";
+                    Sesija sesija = sesije.get(Long.parseLong(dijelovi[1]));
+                    return sesija == null ? "GRESKA nepoznata sesija" : sesija.ploca();
+                }
+                case "ZAVRSI": {
+                    if (dijelovi.length < 2) return "GRESKA očekuje se ZAVRSI <id>";
+                    Sesija sesija = sesije.remove(Long.parseLong(dijelovi[1]));
+                    if (sesija == null) return "GRESKA nepoznata sesija";
+                    sesija.zatvori();
+                    return "OK";
+                }
+                case "STANJE":
+                    return "OK " + sesije.size() + " " + hibernacija.brojRezidentnih() + " "
+                            + hibernacija.brojHiberniranih() + " " + hibernacija.offHeapBajtova();
+                default:
+                    return "GRESKA nepoznata komanda";
+            }
+        } catch (NumberFormatException e) {
+            return "GRESKA neispravan broj: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Zatvara serverski soket i prekida obradu veza.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        hibernacija.close();
+        veze.shutdownNow();
+    }
+
+    /**
+     * Pokreće server na zadanom portu.
+     *
+     * @param args Opcionalno broj porta (podrazumijevano 2048).
+     * @throws IOException ako se soket ne može otvoriti.
+     */
+    public static void main(String[] args) throws IOException {
+        SnimanjeJfr.pokreniAkoJeZatrazeno();
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : PODRAZUMIJEVANI_PORT;
+        IgraServer server = new IgraServer(port);
+        System.out.println("Server igre 2048 sluša na portu " + server.getPort());
+        server.prihvataj(); // Glavna nit prihvata veze (virtuelne niti ne drže JVM živim)
+    }
+}
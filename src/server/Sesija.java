@@ -0,0 +1,187 @@
+package server;
+
+import java.util.concurrent.locks.ReentrantLock;
+import logika.Logika2048;
+
+/**
+ * Klasa `Sesija` predstavlja jednu igru na serveru, identifikovanu brojem sesije.
+ * Više veza može slati poteze istoj sesiji, pa se svaki potez izvršava pod bravom sesije.
+ * Koristi se `ReentrantLock` umjesto `synchronized` da virtuelna nit koja čeka
+ * ne bi blokirala nosačku nit platforme.
+ *
+ * Neaktivna sesija se može uspavati ({@link HibernacijaSesija}): igra se tada čuva
+ * u off-heap slotu, a na heap se vraća pri sljedećem pristupu.
+ */
+final class Sesija {
+
+    /** Identifikator sesije. */
+    private final long id;
+
+    /** Dimenzija ploče. */
+    private final int velicina;
+
+    /** Skladište za uspavane sesije. */
+    private final HibernacijaSesija hibernacija;
+
+    /** Igra koja pripada sesiji, ili `null` dok je sesija uspavana. */
+    private Logika2048 igra;
+
+    /** Slot u slabu dok je sesija uspavana, inače -1. */
+    private volatile int slot = -1;
+
+    /** Da li je sesija zatvorena komandom ZAVRSI. */
+    private boolean zatvorena;
+
+    /** Vrijeme zadnjeg pristupa (System.nanoTime). */
+    private volatile long zadnjiPristup;
+
+    /** Brava koja serijalizuje poteze iste sesije. */
+    private final ReentrantLock brava = new ReentrantLock();
+
+    /**
+     * Kreira novu sesiju sa novom igrom zadane veličine.
+     *
+     * @param id Identifikator sesije.
+     * @param velicina Dimenzija ploče.
+     * @param hibernacija Skladište za uspavane sesije.
+     */
+    Sesija(long id, int velicina, HibernacijaSesija hibernacija) {
+        this.id = id;
+        this.velicina = velicina;
+        this.hibernacija = hibernacija;
+        this.igra = new Logika2048(velicina, false);
+        this.zadnjiPristup = System.nanoTime();
+        hibernacija.novaSesija();
+    }
+
+    /**
+     * Vraća identifikator sesije.
+     *
+     * @return Identifikator.
+     */
+    long getId() {
+        return id;
+    }
+
+    /**
+     * Vraća vrijeme zadnjeg pristupa.
+     *
+     * @return Vrijednost System.nanoTime() pri zadnjem potezu ili čitanju.
+     */
+    long getZadnjiPristup() {
+        return zadnjiPristup;
+    }
+
+    /**
+     * Provjerava da li je igra sesije na heap-u (bez zaključavanja, približno).
+     *
+     * @return `true` ako sesija nije uspavana.
+     */
+    boolean isRezidentna() {
+        return slot < 0;
+    }
+
+    /**
+     * Izvršava potez i vraća odgovor protokola.
+     *
+     * @param smjer Smjer poteza (konstanta iz `Logika2048`).
+     * @return Odgovor oblika "OK rezultat promjena kraj".
+     */
+    String potez(int smjer) {
+        brava.lock();
+        try {
+            Logika2048 aktivna = aktivnaIgra();
+            if (aktivna == null) return "GRESKA sesija je zatvorena";
+            boolean promjena = aktivna.move(smjer);
+            boolean kraj = aktivna.isGameOver();
+            return "OK " + aktivna.getScore() + " " + (promjena ? 1 : 0) + " " + (kraj ? 1 : 0);
+        } finally {
+            brava.unlock();
+        }
+    }
+
+    /**
+     * Vraća stanje ploče kao odgovor protokola.
+     *
+     * @return Odgovor oblika "OK veličina rezultat v1 v2 ...", red po red.
+     */
+    String ploca() {
+        brava.lock();
+        try {
+            Logika2048 aktivna = aktivnaIgra();
+            if (aktivna == null) return "GRESKA sesija je zatvorena";
+            StringBuilder odgovor = new StringBuilder("OK ").append(velicina).append(' ').append(aktivna.getScore());
+            for (int[] red : aktivna.getBoard()) {
+                for (int vrijednost : red) {
+                    odgovor.append(' ').append(vrijednost);
+                }
+            }
+            return odgovor.toString();
+        } finally {
+            brava.unlock();
+        }
+    }
+
+    /**
+     * Uspavljuje sesiju ako joj nije pristupljeno od zadanog trenutka. Sesija koja upravo
+     * izvršava potez se ne čeka, već se preskače.
+     *
+     * @param granica Trenutak (System.nanoTime) prije kojeg je morao biti zadnji pristup.
+     * @return `true` ako je sesija uspavana u ovom pozivu.
+     */
+    boolean hiberniraj(long granica) {
+        return hiberniraj(granica, false);
+    }
+
+    /**
+     * Uspavljuje sesiju bez obzira na zadnji pristup, osim ako upravo izvršava potez.
+     *
+     * @return `true` ako je sesija uspavana u ovom pozivu.
+     */
+    boolean hibernirajOdmah() {
+        return hiberniraj(0, true);
+    }
+
+    private boolean hiberniraj(long granica, boolean odmah) {
+        if (!brava.tryLock()) return false;
+        try {
+            if (igra == null || (!odmah && zadnjiPristup - granica > 0)) return false;
+            slot = hibernacija.uspavaj(igra);
+            igra = null;
+            return true;
+        } finally {
+            brava.unlock();
+        }
+    }
+
+    /**
+     * Zatvara sesiju i oslobađa njen slot ako je bila uspavana.
+     */
+    void zatvori() {
+        brava.lock();
+        try {
+            if (zatvorena) return;
+            hibernacija.zatvorena(velicina, slot);
+            zatvorena = true;
+            igra = null;
+            slot = -1;
+        } finally {
+            brava.unlock();
+        }
+    }
+
+    /**
+     * Vraća igru sesije, budeći je iz slaba ako je uspavana. Poziva se pod bravom.
+     *
+     * @return Igra, ili `null` ako je sesija u međuvremenu zatvorena.
+     */
+    private Logika2048 aktivnaIgra() {
+        if (zatvorena) return null;
+        if (igra == null) {
+            igra = hibernacija.probudi(velicina, slot);
+            slot = -1;
+        }
+        zadnjiPristup = System.nanoTime();
+        return igra;
+    }
+}
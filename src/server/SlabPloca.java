@@ -0,0 +1,182 @@
+package server;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Klasa `SlabPloca` čuva ploče jedne veličine izvan heap-a, u slotovima fiksne veličine
+ * unutar direktnih `ByteBuffer` blokova. Slot sadrži rezultat (4 bajta) i po jedan bajt
+ * za svaku pločicu: eksponent dvojke (0 za praznu pločicu), pa ploča 4x4 zauzima 20 bajtova.
+ * Oslobođeni slotovi se ponovo koriste prije nego što se alocira novi blok.
+ *
+ * Prvi blok ima {@value #POCETNO_SLOTOVA} slotova, a svaki sljedeći dvostruko više, dok blok
+ * ne dostigne oko {@value #MAKS_BAJTOVA_BLOKA} bajtova; dalje su svi blokovi te veličine.
+ * Tako jedna uspavana sesija ne rezerviše megabajte, a velik broj sesija ne pravi mnogo malih blokova.
+ */
+final class SlabPloca {
+
+    /** Broj slotova u prvom direktnom bloku. */
+    private static final int POCETNO_SLOTOVA = 16;
+
+    /** Najveća veličina jednog direktnog bloka u bajtovima. */
+    private static final int MAKS_BAJTOVA_BLOKA = 1 << 20;
+
+    /** Dimenzija ploča u ovom slabu. */
+    private final int velicina;
+
+    /** Broj bajtova jednog slota. */
+    private final int velicinaSlota;
+
+    /** Broj slotova u najvećem bloku (stepen dvojke). */
+    private final int maksSlotova;
+
+    /** Broj blokova koji rastu do najveće veličine. */
+    private final int rastucihBlokova;
+
+    /** Direktni blokovi memorije. */
+    private final List<ByteBuffer> blokovi = new ArrayList<>();
+
+    /** Stek oslobođenih slotova. */
+    private int[] slobodni = new int[64];
+
+    /** Broj slotova na steku oslobođenih. */
+    private int brojSlobodnih;
+
+    /** Prvi slot koji još nikada nije korišten. */
+    private int sljedeciNovi;
+
+    /** Brava za alokaciju i pristup slotovima. */
+    private final ReentrantLock brava = new ReentrantLock();
+
+    /**
+     * Kreira prazan slab za ploče zadane veličine.
+     *
+     * @param velicina Dimenzija ploče.
+     */
+    SlabPloca(int velicina) {
+        this.velicina = velicina;
+        this.velicinaSlota = Integer.BYTES + velicina * velicina;
+        this.maksSlotova = Math.max(POCETNO_SLOTOVA, Integer.highestOneBit(MAKS_BAJTOVA_BLOKA / velicinaSlota));
+        this.rastucihBlokova = Integer.numberOfTrailingZeros(maksSlotova / POCETNO_SLOTOVA);
+    }
+
+    /**
+     * Sprema ploču i rezultat u slobodan slot.
+     *
+     * @param plocice Pločice red po red.
+     * @param rezultat Rezultat igre.
+     * @return Broj slota.
+     */
+    int spremi(int[] plocice, int rezultat) {
+        brava.lock();
+        try {
+            int slot = brojSlobodnih > 0 ? slobodni[--brojSlobodnih] : noviSlot();
+            int indeks = blok(slot);
+            ByteBuffer blok = blokovi.get(indeks);
+            int pozicija = (slot - pocetak(indeks)) * velicinaSlota;
+            blok.putInt(pozicija, rezultat);
+            pozicija += Integer.BYTES;
+            for (int i = 0; i < velicina * velicina; i++) {
+                int vrijednost = plocice[i];
+                blok.put(pozicija + i, (byte) (vrijednost == 0 ? 0 : Integer.numberOfTrailingZeros(vrijednost)));
+            }
+            return slot;
+        } finally {
+            brava.unlock();
+        }
+    }
+
+    /**
+     * Čita ploču iz slota i oslobađa ga.
+     *
+     * @param slot Broj slota.
+     * @param plocice Odredišni niz za pločice red po red.
+     * @return Rezultat igre.
+     */
+    int ucitaj(int slot, int[] plocice) {
+        brava.lock();
+        try {
+            int indeks = blok(slot);
+            ByteBuffer blok = blokovi.get(indeks);
+            int pozicija = (slot - pocetak(indeks)) * velicinaSlota;
+            int rezultat = blok.getInt(pozicija);
+            pozicija += Integer.BYTES;
+            for (int i = 0; i < velicina * velicina; i++) {
+                int eksponent = blok.get(pozicija + i);
+                plocice[i] = eksponent == 0 ? 0 : 1 << eksponent;
+            }
+            vrati(slot);
+            return rezultat;
+        } finally {
+            brava.unlock();
+        }
+    }
+
+    /**
+     * Oslobađa slot bez čitanja (npr. kada se hibernirana sesija zatvori).
+     *
+     * @param slot Broj slota.
+     */
+    void oslobodi(int slot) {
+        brava.lock();
+        try {
+            vrati(slot);
+        } finally {
+            brava.unlock();
+        }
+    }
+
+    /**
+     * Vraća broj bajtova alociranih izvan heap-a.
+     *
+     * @return Ukupna veličina direktnih blokova.
+     */
+    long alociranoBajtova() {
+        brava.lock();
+        try {
+            return (long) pocetak(blokovi.size()) * velicinaSlota;
+        } finally {
+            brava.unlock();
+        }
+    }
+
+    private int noviSlot() {
+        int indeks = blokovi.size();
+        if (sljedeciNovi == pocetak(indeks)) {
+            int slotova = indeks < rastucihBlokova ? POCETNO_SLOTOVA << indeks : maksSlotova;
+            blokovi.add(ByteBuffer.allocateDirect(slotova * velicinaSlota));
+        }
+        return sljedeciNovi++;
+    }
+
+    /**
+     * Vraća indeks bloka u kojem je slot.
+     */
+    private int blok(int slot) {
+        int uRastucim = maksSlotova - POCETNO_SLOTOVA;
+        if (slot < uRastucim) {
+            return 31 - Integer.numberOfLeadingZeros(slot / POCETNO_SLOTOVA + 1);
+        }
+        return rastucihBlokova + (slot - uRastucim) / maksSlotova;
+    }
+
+    /**
+     * Vraća prvi slot zadanog bloka, odnosno broj slotova u svim blokovima prije njega.
+     */
+    private int pocetak(int blok) {
+        if (blok <= rastucihBlokova) {
+            return POCETNO_SLOTOVA * ((1 << blok) - 1);
+        }
+        return maksSlotova - POCETNO_SLOTOVA + (blok - rastucihBlokova) * maksSlotova;
+    }
+
+    private void vrati(int slot) {
+        if (brojSlobodnih == slobodni.length) {
+            slobodni = Arrays.copyOf(slobodni, slobodni.length * 2);
+        }
+        slobodni[brojSlobodnih++] = slot;
+    }
+}
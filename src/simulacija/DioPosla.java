@@ -0,0 +1,125 @@
+package simulacija;
+
+import java.util.SplittableRandom;
+import java.util.function.LongConsumer;
+import logika.Logika2048;
+
+/**
+ * Klasa `DioPosla` je dio simulacijskog posla: uzastopne igre od {@code prva} do
+ * {@code prva + broj - 1} na ploči zadane veličine sa zadanom politikom. Sjeme svake igre
+ * zavisi samo od sjemena posla i rednog broja igre, a ne od podjele na dijelove, pa zbir
+ * histograma svih dijelova uvijek daje isti rezultat kao cijeli posao u jednom procesu.
+ *
+ * Tekstualni oblik: {@code <id> <veličina> <politika> <sjeme> <prva> <broj>}.
+ */
+final class DioPosla {
+
+    private final int id;
+    private final int velicina;
+    private final Politika politika;
+    private final long seed;
+    private final long prva;
+    private final int broj;
+
+    /** Broj dosadašnjih pokušaja (koristi samo koordinator). */
+    int pokusaja;
+
+    DioPosla(int id, int velicina, Politika politika, long seed, long prva, int broj) {
+        this.id = id;
+        this.velicina = velicina;
+        this.politika = politika;
+        this.seed = seed;
+        this.prva = prva;
+        this.broj = broj;
+    }
+
+    int getId() {
+        return id;
+    }
+
+    int getVelicina() {
+        return velicina;
+    }
+
+    Politika getPolitika() {
+        return politika;
+    }
+
+    int getBroj() {
+        return broj;
+    }
+
+    /**
+     * Igra sve igre dijela u pozivajućoj niti.
+     *
+     * @param napredak Prima broj do sada odigranih igara nakon svake igre (može biti `null`).
+     * @return Histogram konačnih rezultata.
+     */
+    HistogramRezultata odigraj(LongConsumer napredak) {
+        HistogramRezultata histogram = new HistogramRezultata();
+        int[] ploca = new int[velicina * velicina];
+        for (int i = 0; i < broj; i++) {
+            long sjemeIgre = izmijesaj(seed + (prva + i) * 0x9E3779B97F4A7C15L);
+            Logika2048 igra = new Logika2048(velicina, false, sjemeIgre);
+            SplittableRandom random = new SplittableRandom(izmijesaj(sjemeIgre));
+            long poteza = 0;
+            while (!igra.isGameOver()) {
+                int maska = igra.legalMoves();
+                if (maska == 0) break;
+                igra.copyCells(ploca);
+                igra.move(politika.izaberi(ploca, velicina, maska, random));
+                poteza++;
+            }
+            igra.copyCells(ploca);
+            histogram.dodaj(igra.getScore(), najveca(ploca) >= HistogramRezultata.POBJEDA, poteza);
+            if (napredak != null) napredak.accept(i + 1);
+        }
+        return histogram;
+    }
+
+    private static int najveca(int[] ploca) {
+        int najveca = 0;
+        for (int v : ploca) {
+            najveca = Math.max(najveca, v);
+        }
+        return najveca;
+    }
+
+    /**
+     * Miješa bitove sjemena (završni korak SplitMix64), da susjedni redni brojevi igara
+     * daju nezavisna sjemena.
+     */
+    private static long izmijesaj(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Vraća dio u tekstualnom obliku protokola.
+     */
+    String zapisi() {
+        return id + " " + velicina + " " + politika.name() + " " + seed + " " + prva + " " + broj;
+    }
+
+    /**
+     * Čita dio iz tekstualnog oblika protokola.
+     *
+     * @param dijelovi Riječi zapisa.
+     * @param od Indeks prve riječi dijela.
+     * @return Pročitani dio.
+     * @throws IllegalArgumentException Ako zapis nije ispravan.
+     */
+    static DioPosla procitaj(String[] dijelovi, int od) {
+        if (dijelovi.length < od + 6) throw new IllegalArgumentException("nepotpun opis dijela");
+        return new DioPosla(Integer.parseInt(dijelovi[od]), Integer.parseInt(dijelovi[od + 1]),
+                Politika.poImenu(dijelovi[od + 2]), Long.parseLong(dijelovi[od + 3]),
+                Long.parseLong(dijelovi[od + 4]), Integer.parseInt(dijelovi[od + 5]));
+    }
+
+    @Override
+    public String toString() {
+        return "dio " + id + " (" + velicina + "x" + velicina + ", " + politika.name().toLowerCase() + ", igre "
+                + prva + ".." + (prva + broj - 1) + ")";
+    }
+}
@@ -0,0 +1,174 @@
+package simulacija;
+
+import java.util.Arrays;
+
+/**
+ * Klasa `HistogramRezultata` broji konačne rezultate odigranih igara. Svaki spoj pločica
+ * dodaje višekratnik od 4 rezultatu, pa korpa širine 4 čuva tačan rezultat, a spajanje
+ * histograma je samo zbir brojača. Zato je spojeni histogram isti bez obzira na to kako su
+ * igre podijeljene i kojim redom stižu dijelovi.
+ *
+ * Tekstualni oblik (za protokol između koordinatora i radnika):
+ * {@code <igara> <pobjeda> <poteza> <korpa>:<broj> ...}, samo za neprazne korpe.
+ */
+final class HistogramRezultata {
+
+    /** Širina korpe u poenima. */
+    static final int SIRINA_KORPE = 4;
+
+    /** Prag pobjede. */
+    static final int POBJEDA = 2048;
+
+    private long[] korpe = new long[64];
+    private long igara;
+    private long pobjeda;
+    private long poteza;
+
+    /**
+     * Dodaje jednu odigranu igru.
+     *
+     * @param rezultat Konačan rezultat.
+     * @param pobijedio `true` ako je igra došla do pločice {@link #POBJEDA}.
+     * @param brojPoteza Broj poteza u igri.
+     */
+    void dodaj(int rezultat, boolean pobijedio, long brojPoteza) {
+        dodajKorpu(rezultat / SIRINA_KORPE, 1);
+        igara++;
+        if (pobijedio) pobjeda++;
+        poteza += brojPoteza;
+    }
+
+    /**
+     * Dodaje sve igre drugog histograma.
+     *
+     * @param drugi Histogram koji se dodaje (ne mijenja se).
+     */
+    void spoji(HistogramRezultata drugi) {
+        for (int i = 0; i < drugi.korpe.length; i++) {
+            if (drugi.korpe[i] != 0) dodajKorpu(i, drugi.korpe[i]);
+        }
+        igara += drugi.igara;
+        pobjeda += drugi.pobjeda;
+        poteza += drugi.poteza;
+    }
+
+    private void dodajKorpu(int korpa, long broj) {
+        if (korpa >= korpe.length) {
+            korpe = Arrays.copyOf(korpe, Math.max(korpa + 1, korpe.length * 2));
+        }
+        korpe[korpa] += broj;
+    }
+
+    long getIgara() {
+        return igara;
+    }
+
+    long getPobjeda() {
+        return pobjeda;
+    }
+
+    long getPoteza() {
+        return poteza;
+    }
+
+    /**
+     * @return Prosječan rezultat.
+     */
+    double prosjek() {
+        if (igara == 0) return 0;
+        double zbir = 0;
+        for (int i = 0; i < korpe.length; i++) {
+            zbir += (double) korpe[i] * i * SIRINA_KORPE;
+        }
+        return zbir / igara;
+    }
+
+    /**
+     * Vraća rezultat ispod kojeg je zadani udio igara.
+     *
+     * @param udio Udio između 0 i 1.
+     * @return Rezultat percentila (0 za prazan histogram).
+     */
+    int percentil(double udio) {
+        long cilj = (long) Math.ceil(udio * igara);
+        long zbir = 0;
+        for (int i = 0; i < korpe.length; i++) {
+            zbir += korpe[i];
+            if (zbir >= cilj && zbir > 0) return i * SIRINA_KORPE;
+        }
+        return 0;
+    }
+
+    /**
+     * @return Najveći rezultat (0 za prazan histogram).
+     */
+    int maksimum() {
+        for (int i = korpe.length - 1; i >= 0; i--) {
+            if (korpe[i] != 0) return i * SIRINA_KORPE;
+        }
+        return 0;
+    }
+
+    /**
+     * Vraća histogram u tekstualnom obliku protokola.
+     */
+    String zapisi() {
+        StringBuilder zapis = new StringBuilder();
+        zapis.append(igara).append(' ').append(pobjeda).append(' ').append(poteza);
+        for (int i = 0; i < korpe.length; i++) {
+            if (korpe[i] != 0) zapis.append(' ').append(i).append(':').append(korpe[i]);
+        }
+        return zapis.toString();
+    }
+
+    /**
+     * Čita histogram iz tekstualnog oblika protokola.
+     *
+     * @param dijelovi Riječi zapisa.
+     * @param od Indeks prve riječi histograma.
+     * @return Pročitani histogram.
+     * @throws IllegalArgumentException Ako zapis nije ispravan ili se zbir korpi ne slaže sa brojem igara.
+     */
+    static HistogramRezultata procitaj(String[] dijelovi, int od) {
+        if (dijelovi.length < od + 3) throw new IllegalArgumentException("nepotpun histogram");
+        HistogramRezultata histogram = new HistogramRezultata();
+        long ukupno = 0;
+        for (int i = od + 3; i < dijelovi.length; i++) {
+            int dvotacka = dijelovi[i].indexOf(':');
+            if (dvotacka < 0) throw new IllegalArgumentException("neispravna korpa: " + dijelovi[i]);
+            long broj = Long.parseLong(dijelovi[i].substring(dvotacka + 1));
+            histogram.dodajKorpu(Integer.parseInt(dijelovi[i].substring(0, dvotacka)), broj);
+            ukupno += broj;
+        }
+        histogram.igara = Long.parseLong(dijelovi[od]);
+        histogram.pobjeda = Long.parseLong(dijelovi[od + 1]);
+        histogram.poteza = Long.parseLong(dijelovi[od + 2]);
+        if (ukupno != histogram.igara) {
+            throw new IllegalArgumentException("histogram ima " + ukupno + " igara u korpama, a najavljeno je " + histogram.igara);
+        }
+        return histogram;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof HistogramRezultata)) return false;
+        HistogramRezultata drugi = (HistogramRezultata) o;
+        if (igara != drugi.igara || pobjeda != drugi.pobjeda || poteza != drugi.poteza) return false;
+        int duzina = Math.max(korpe.length, drugi.korpe.length);
+        for (int i = 0; i < duzina; i++) {
+            long a = i < korpe.length ? korpe[i] : 0;
+            long b = i < drugi.korpe.length ? drugi.korpe[i] : 0;
+            if (a != b) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = Long.hashCode(igara) * 31 + Long.hashCode(poteza);
+        for (int i = 0; i < korpe.length; i++) {
+            if (korpe[i] != 0) hash = hash * 31 + i * 17 + Long.hashCode(korpe[i]);
+        }
+        return hash;
+    }
+}
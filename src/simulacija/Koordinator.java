@@ -0,0 +1,430 @@
+package simulacija;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Klasa `Koordinator` dijeli simulacijski posao (sve kombinacije veličina ploče i politika,
+ * zadani broj igara za svaku) na dijelove sa sjemenom i šalje ih procesima {@link Radnik}
+ * preko soketa na lokalnoj adresi. Svaka veza se obrađuje na vlastitoj virtuelnoj niti, koja
+ * radniku šalje dio po dio iz zajedničkog reda. Histogrami rezultata dijelova se spajaju po
+ * kombinaciji.
+ *
+ * Ako radnik padne, prekine vezu, javi grešku ili se ne javi duže od {@link #TISINA}, njegov
+ * dio se vraća u red i dodjeljuje drugom radniku, a umjesto pokrenutog procesa pokreće se
+ * novi. Dio koji ne uspije {@link #MAKS_POKUSAJA} puta prekida posao. Kako sjeme igre zavisi
+ * samo od sjemena posla i rednog broja igre (vidi {@link DioPosla}), rezultat je isti kao u
+ * jednom procesu, bez obzira na broj radnika, podjelu i ponovljene dijelove.
+ *
+ * Pokretanje: {@code java simulacija.Koordinator [-velicine 3,4] [-politike nasumicno,ugao,pohlepno]
+ * [-igara 10000] [-dio 500] [-seed 1] [-radnika 4] [-port 0] [-kvar 0.2] [-lokalno] [-provjera]}.
+ * Sa {@code -radnika 0} koordinator ne pokreće procese nego čeka radnike pokrenute ručno na
+ * zadanom portu; {@code -lokalno} igra sve dijelove u ovom procesu, a {@code -provjera}
+ * nakon raspodijeljene simulacije ponavlja sve u ovom procesu i poredi histograme.
+ */
+public class Koordinator implements Closeable {
+
+    /** Najveći broj pokušaja jednog dijela. */
+    static final int MAKS_POKUSAJA = 3;
+
+    /** Najduže vrijeme bez poruke radnika dok igra dio. */
+    static final Duration TISINA = Duration.ofSeconds(60);
+
+    /** Serverski soket, vezan samo na lokalnu adresu. */
+    private final ServerSocket serverSocket;
+
+    /** Dijelovi koji čekaju radnika. */
+    private final LinkedBlockingQueue<DioPosla> red = new LinkedBlockingQueue<>();
+
+    /** Histogrami završenih dijelova po identifikatoru dijela. */
+    private final Map<Integer, HistogramRezultata> zavrseni = new ConcurrentHashMap<>();
+
+    /** Pokrenuti procesi radnika. */
+    private final List<Process> procesi = new CopyOnWriteArrayList<>();
+
+    /** Broj radnika koji su trenutno spojeni. */
+    private final AtomicInteger spojenih = new AtomicInteger();
+
+    /** Vjerovatnoća namjernog pada koja se prosljeđuje pokrenutim radnicima. */
+    private final double kvar;
+
+    private volatile CountDownLatch preostalo = new CountDownLatch(0);
+    private volatile String neuspjeh;
+
+    /**
+     * Otvara serverski soket na lokalnoj adresi i počinje prihvatati radnike.
+     *
+     * @param port TCP port (0 za bilo koji slobodan port).
+     * @param kvar Vjerovatnoća namjernog pada usred dijela za pokrenute radnike (0 za nikad).
+     * @throws IOException Ako se soket ne može otvoriti.
+     */
+    public Koordinator(int port, double kvar) throws IOException {
+        this.serverSocket = new ServerSocket(port, 64, InetAddress.getLoopbackAddress());
+        this.kvar = kvar;
+        Thread.ofVirtual().name("koordinator").start(this::prihvataj);
+    }
+
+    /**
+     * Vraća port na kojem koordinator čeka radnike.
+     *
+     * @return Broj porta.
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Pokreće zadani broj procesa radnika na ovom računaru.
+     *
+     * @param broj Broj procesa.
+     * @throws IOException Ako se proces ne može pokrenuti.
+     */
+    public void pokreniRadnike(int broj) throws IOException {
+        for (int i = 0; i < broj; i++) {
+            pokreniRadnika();
+        }
+    }
+
+    private void pokreniRadnika() throws IOException {
+        String java = ProcessHandle.current().info().command()
+                .orElse(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java");
+        List<String> komanda = new ArrayList<>();
+        komanda.add(java);
+        if (kvar > 0) komanda.add("-Dsimulacija.kvar=" + kvar);
+        String modulePath = System.getProperty("jdk.module.path");
+        if (modulePath != null && Radnik.class.getModule().isNamed()) {
+            komanda.addAll(List.of("--module-path", modulePath, "-m", Radnik.class.getModule().getName() + "/" + Radnik.class.getName()));
+        } else {
+            komanda.addAll(List.of("-cp", System.getProperty("java.class.path"), Radnik.class.getName()));
+        }
+        komanda.add(Integer.toString(getPort()));
+        procesi.add(new ProcessBuilder(komanda).redirectOutput(ProcessBuilder.Redirect.INHERIT)
+                .redirectError(ProcessBuilder.Redirect.INHERIT).start());
+    }
+
+    /**
+     * Raspoređuje dijelove radnicima i čeka da svi budu završeni.
+     *
+     * @param dijelovi Dijelovi posla (identifikatori moraju biti različiti).
+     * @return Histogrami po identifikatoru dijela.
+     * @throws IOException Ako neki dio ne uspije {@link #MAKS_POKUSAJA} puta ili više nema radnika.
+     * @throws InterruptedException Ako je nit prekinuta dok čeka.
+     */
+    Map<Integer, HistogramRezultata> izvrsi(List<DioPosla> dijelovi) throws IOException, InterruptedException {
+        zavrseni.clear();
+        neuspjeh = null;
+        preostalo = new CountDownLatch(dijelovi.size());
+        red.addAll(dijelovi);
+        while (!preostalo.await(1, TimeUnit.SECONDS)) {
+            if (neuspjeh != null) break;
+            if (!procesi.isEmpty() && spojenih.get() == 0 && procesi.stream().noneMatch(Process::isAlive)) {
+                neuspjeh = "svi radnici su završili, a " + preostalo.getCount() + " dijelova nije gotovo";
+            }
+        }
+        if (neuspjeh != null) {
+            red.clear();
+            throw new IOException(neuspjeh);
+        }
+        return new LinkedHashMap<>(zavrseni);
+    }
+
+    /**
+     * Prihvata radnike dok se soket ne zatvori.
+     */
+    private void prihvataj() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket veza = serverSocket.accept();
+                Thread.ofVirtual().name("radnik-veza").start(() -> posluzi(veza));
+            } catch (IOException e) {
+                if (!serverSocket.isClosed()) {
+                    System.err.println("Greška pri prihvatanju radnika: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Šalje dijelove jednom radniku dok se veza ne prekine ili koordinator ne zatvori.
+     *
+     * @param veza Soket radnika.
+     */
+    private void posluzi(Socket veza) {
+        spojenih.incrementAndGet();
+        String radnik = veza.getRemoteSocketAddress().toString();
+        DioPosla dio = null;
+        try (veza;
+             BufferedReader ulaz = new BufferedReader(new InputStreamReader(veza.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter izlaz = new BufferedWriter(new OutputStreamWriter(veza.getOutputStream(), StandardCharsets.UTF_8))) {
+            veza.setTcpNoDelay(true);
+            veza.setSoTimeout((int) TISINA.toMillis());
+            String prijava = ulaz.readLine();
+            if (prijava == null || !prijava.startsWith("RADNIK ")) {
+                throw new IOException("očekivana prijava radnika, primljeno: " + prijava);
+            }
+            radnik = "radnik " + prijava.substring(7).trim();
+            while (!serverSocket.isClosed()) {
+                dio = red.poll(200, TimeUnit.MILLISECONDS);
+                if (dio == null) continue;
+                izlaz.write("DIO " + dio.zapisi());
+                izlaz.newLine();
+                izlaz.flush();
+                HistogramRezultata histogram = cekajRezultat(ulaz, dio);
+                if (zavrseni.putIfAbsent(dio.getId(), histogram) == null) preostalo.countDown();
+                dio = null;
+            }
+            izlaz.write("KRAJ");
+            izlaz.newLine();
+            izlaz.flush();
+        } catch (SocketTimeoutException e) {
+            System.err.println(radnik + ": bez odgovora duže od " + TISINA.toSeconds() + " s");
+        } catch (IOException | IllegalArgumentException e) {
+            if (dio != null || !serverSocket.isClosed()) {
+                System.err.println(radnik + ": " + e.getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            spojenih.decrementAndGet();
+            if (dio != null && vrati(dio, radnik)) zamijeniRadnika();
+        }
+    }
+
+    /**
+     * Čita poruke radnika do rezultata zadanog dijela.
+     *
+     * @return Histogram dijela.
+     * @throws IOException Ako se veza prekine ili radnik javi grešku.
+     */
+    private static HistogramRezultata cekajRezultat(BufferedReader ulaz, DioPosla dio) throws IOException {
+        String linija;
+        while ((linija = ulaz.readLine()) != null) {
+            String[] dijelovi = linija.trim().split("\\s+");
+            switch (dijelovi[0]) {
+                case "NAPREDAK":
+                    continue;
+                case "REZULTAT": {
+                    if (dijelovi.length < 2 || Integer.parseInt(dijelovi[1]) != dio.getId()) {
+                        throw new IOException("rezultat za pogrešan dio: " + linija);
+                    }
+                    HistogramRezultata histogram = HistogramRezultata.procitaj(dijelovi, 2);
+                    if (histogram.getIgara() != dio.getBroj()) {
+                        throw new IOException("dio " + dio.getId() + " ima " + histogram.getIgara()
+                                + " igara umjesto " + dio.getBroj());
+                    }
+                    return histogram;
+                }
+                case "GRESKA":
+                    throw new IOException("greška radnika: " + linija.substring(6).trim());
+                default:
+                    throw new IOException("neočekivana poruka: " + linija);
+            }
+        }
+        throw new IOException("veza prekinuta usred dijela " + dio.getId());
+    }
+
+    /**
+     * Vraća neuspjeli dio u red, ili prekida posao ako su pokušaji iscrpljeni.
+     *
+     * @return `true` ako je dio vraćen u red.
+     */
+    private boolean vrati(DioPosla dio, String radnik) {
+        dio.pokusaja++;
+        if (dio.pokusaja >= MAKS_POKUSAJA) {
+            neuspjeh = dio + " nije uspio ni nakon " + dio.pokusaja + " pokušaja";
+            return false;
+        }
+        System.err.println(dio + " se ponovo šalje (" + radnik + " nije završio, pokušaj " + (dio.pokusaja + 1) + ")");
+        red.add(dio);
+        return true;
+    }
+
+    /**
+     * Pokreće novi proces radnika umjesto palog, ako je koordinator pokretao procese. Poziva se
+     * samo kada je dio palog radnika vraćen u red, pa svaki dio pokreće najviše
+     * {@code MAKS_POKUSAJA - 1} zamjena.
+     */
+    private void zamijeniRadnika() {
+        if (procesi.isEmpty() || serverSocket.isClosed() || preostalo.getCount() == 0) return;
+        try {
+            pokreniRadnika();
+        } catch (IOException e) {
+            System.err.println("Novi radnik se ne može pokrenuti: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Zatvara soket (radnici dobijaju {@code KRAJ} ili prekid veze) i čeka pokrenute procese.
+     */
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        for (Process proces : procesi) {
+            try {
+                if (!proces.waitFor(5, TimeUnit.SECONDS)) proces.destroyForcibly();
+            } catch (InterruptedException e) {
+                proces.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Dijeli posao na dijelove: za svaku veličinu i politiku {@code igara} igara u dijelovima
+     * od najviše {@code poDijelu} igara.
+     *
+     * @return Dijelovi sa uzastopnim identifikatorima od 0.
+     */
+    static List<DioPosla> podijeli(int[] velicine, Politika[] politike, long igara, int poDijelu, long seed) {
+        List<DioPosla> dijelovi = new ArrayList<>();
+        for (int velicina : velicine) {
+            for (Politika politika : politike) {
+                for (long prva = 0; prva < igara; prva += poDijelu) {
+                    dijelovi.add(new DioPosla(dijelovi.size(), velicina, politika, seed, prva, (int) Math.min(poDijelu, igara - prva)));
+                }
+            }
+        }
+        return dijelovi;
+    }
+
+    /**
+     * Igra sve dijelove u ovom procesu, jedan za drugim.
+     *
+     * @return Histogrami po identifikatoru dijela.
+     */
+    static Map<Integer, HistogramRezultata> izvrsiLokalno(List<DioPosla> dijelovi) {
+        Map<Integer, HistogramRezultata> rezultati = new LinkedHashMap<>();
+        for (DioPosla dio : dijelovi) {
+            rezultati.put(dio.getId(), dio.odigraj(null));
+        }
+        return rezultati;
+    }
+
+    /**
+     * Spaja histograme dijelova po kombinaciji veličine i politike.
+     *
+     * @return Histogrami po opisu kombinacije (npr. "4x4 ugao"), redom kao u poslu.
+     */
+    static Map<String, HistogramRezultata> spoji(List<DioPosla> dijelovi, Map<Integer, HistogramRezultata> rezultati) {
+        Map<String, HistogramRezultata> spojeni = new LinkedHashMap<>();
+        for (DioPosla dio : dijelovi) {
+            String kombinacija = dio.getVelicina() + "x" + dio.getVelicina() + " " + dio.getPolitika().name().toLowerCase();
+            spojeni.computeIfAbsent(kombinacija, k -> new HistogramRezultata()).spoji(rezultati.get(dio.getId()));
+        }
+        return spojeni;
+    }
+
+    private static void ispisi(Map<String, HistogramRezultata> spojeni, long pocetak) {
+        double sekunde = Math.max(1e-9, (System.nanoTime() - pocetak) / 1e9);
+        long ukupno = 0;
+        for (Map.Entry<String, HistogramRezultata> unos : spojeni.entrySet()) {
+            HistogramRezultata h = unos.getValue();
+            ukupno += h.getIgara();
+            System.out.printf("%-16s %,10d igara  prosjek %,10.1f  medijan %,8d  p90 %,8d  maks %,8d  pobjeda %6.2f %%  poteza/igri %,8.1f%n",
+                    unos.getKey(), h.getIgara(), h.prosjek(), h.percentil(0.5), h.percentil(0.9), h.maksimum(),
+                    100.0 * h.getPobjeda() / Math.max(1, h.getIgara()), (double) h.getPoteza() / Math.max(1, h.getIgara()));
+        }
+        System.out.printf("Ukupno %,d igara za %.2f s (%,.0f igara/s)%n", ukupno, sekunde, ukupno / sekunde);
+    }
+
+    /**
+     * Pokreće simulacijski posao.
+     *
+     * @param args Opcije (vidi opis klase).
+     * @throws Exception Ako posao ne uspije.
+     */
+    public static void main(String[] args) throws Exception {
+        int[] velicine = {4};
+        Politika[] politike = {Politika.NASUMICNO};
+        long igara = 10_000;
+        int poDijelu = 500;
+        long seed = 1;
+        int radnika = Math.max(1, Runtime.getRuntime().availableProcessors());
+        int port = 0;
+        double kvar = 0;
+        boolean lokalno = false;
+        boolean provjera = false;
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("-velicine")) {
+                String[] dijelovi = args[++i].split(",");
+                velicine = new int[dijelovi.length];
+                for (int j = 0; j < dijelovi.length; j++) {
+                    velicine[j] = Integer.parseInt(dijelovi[j].trim());
+                    if (velicine[j] < 2 || velicine[j] > 16) throw new IllegalArgumentException("veličina mora biti između 2 i 16");
+                }
+            } else if (args[i].equals("-politike")) {
+                String[] dijelovi = args[++i].split(",");
+                politike = new Politika[dijelovi.length];
+                for (int j = 0; j < dijelovi.length; j++) {
+                    politike[j] = Politika.poImenu(dijelovi[j]);
+                }
+            } else if (args[i].equals("-igara")) {
+                igara = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-dio")) {
+                poDijelu = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-seed")) {
+                seed = Long.parseLong(args[++i]);
+            } else if (args[i].equals("-radnika")) {
+                radnika = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-port")) {
+                port = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("-kvar")) {
+                kvar = Double.parseDouble(args[++i]);
+            } else if (args[i].equals("-lokalno")) {
+                lokalno = true;
+            } else if (args[i].equals("-provjera")) {
+                provjera = true;
+            } else {
+                throw new IllegalArgumentException("nepoznata opcija: " + args[i]);
+            }
+        }
+
+        List<DioPosla> dijelovi = podijeli(velicine, politike, igara, poDijelu, seed);
+        long pocetak = System.nanoTime();
+        if (lokalno) {
+            System.out.printf("Simulacija u jednom procesu: %d dijelova%n", dijelovi.size());
+            ispisi(spoji(dijelovi, izvrsiLokalno(dijelovi)), pocetak);
+            return;
+        }
+
+        Map<String, HistogramRezultata> raspodijeljeno;
+        try (Koordinator koordinator = new Koordinator(port, kvar)) {
+            System.out.printf("Koordinator na portu %d: %d dijelova, %d radnika%n", koordinator.getPort(), dijelovi.size(), radnika);
+            koordinator.pokreniRadnike(radnika);
+            raspodijeljeno = spoji(dijelovi, koordinator.izvrsi(dijelovi));
+        }
+        ispisi(raspodijeljeno, pocetak);
+
+        if (provjera) {
+            long pocetakLokalno = System.nanoTime();
+            Map<String, HistogramRezultata> jedanProces = spoji(dijelovi, izvrsiLokalno(dijelovi));
+            System.out.printf("Provjera u jednom procesu (%.2f s): ", (System.nanoTime() - pocetakLokalno) / 1e9);
+            if (!jedanProces.equals(raspodijeljeno)) {
+                System.out.println("histogrami se RAZLIKUJU");
+                System.exit(1);
+            }
+            System.out.println("histogrami su isti");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package simulacija;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+import logika.Logika2048;
+
+/**
+ * Enum `Politika` bira potez u simulaciji iz maske mogućih poteza
+ * ({@link Logika2048#legalMoves()}). Izbor zavisi samo od ploče i generatora igre, pa ista
+ * igra sa istim sjemenom uvijek daje isti niz poteza.
+ */
+public enum Politika {
+
+    /** Nasumičan mogući potez, svi sa jednakom vjerovatnoćom. */
+    NASUMICNO {
+        @Override
+        int izaberi(int[] ploca, int velicina, int maska, SplittableRandom random) {
+            int izbor = random.nextInt(Integer.bitCount(maska));
+            for (; izbor > 0; izbor--) {
+                maska &= maska - 1;
+            }
+            return Integer.numberOfTrailingZeros(maska);
+        }
+    },
+
+    /** Prvi mogući potez redom dolje, lijevo, desno, gore (pločice se skupljaju u donjem lijevom uglu). */
+    UGAO {
+        @Override
+        int izaberi(int[] ploca, int velicina, int maska, SplittableRandom random) {
+            for (int smjer : REDOSLIJED) {
+                if ((maska >>> smjer & 1) != 0) return smjer;
+            }
+            return -1;
+        }
+    },
+
+    /** Potez sa najvećim trenutnim prirastom rezultata; kod jednakog prirasta redoslijed kao {@link #UGAO}. */
+    POHLEPNO {
+        @Override
+        int izaberi(int[] ploca, int velicina, int maska, SplittableRandom random) {
+            int[] kopija = new int[ploca.length];
+            int najbolji = -1;
+            int najveci = -1;
+            for (int smjer : REDOSLIJED) {
+                if ((maska >>> smjer & 1) == 0) continue;
+                System.arraycopy(ploca, 0, kopija, 0, ploca.length);
+                int prirast = Logika2048.applyMove(kopija, velicina, smjer);
+                if (prirast > najveci) {
+                    najveci = prirast;
+                    najbolji = smjer;
+                }
+            }
+            return najbolji;
+        }
+    };
+
+    /** Redoslijed smjerova za politike sa fiksnom prednošću. */
+    private static final int[] REDOSLIJED = {Logika2048.DOWN, Logika2048.LEFT, Logika2048.RIGHT, Logika2048.UP};
+
+    /**
+     * Bira potez.
+     *
+     * @param ploca Pločice red po red (ne mijenjaju se).
+     * @param velicina Dimenzija ploče.
+     * @param maska Maska mogućih poteza (bit {@code 1 << smjer}), različita od nule.
+     * @param random Generator igre.
+     * @return Izabrani smjer.
+     */
+    abstract int izaberi(int[] ploca, int velicina, int maska, SplittableRandom random);
+
+    /**
+     * Vraća politiku po imenu, bez obzira na velika i mala slova.
+     *
+     * @param ime Ime politike (npr. "nasumicno").
+     * @return Politika.
+     * @throws IllegalArgumentException Ako politika ne postoji.
+     */
+    public static Politika poImenu(String ime) {
+        return valueOf(ime.trim().toUpperCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,116 @@
+package simulacija;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Klasa `Radnik` je proces koji igra dijelove simulacijskog posla za {@link Koordinator}.
+ * Spaja se na koordinatora na lokalnoj adresi i izvršava dijelove jedan po jedan, bez
+ * prozora i bez ispisa igre.
+ *
+ * Protokol je tekstualan, jedna poruka po redu:
+ * <ul>
+ *   <li>radnik: {@code RADNIK <pid>} - prijava nakon spajanja</li>
+ *   <li>koordinator: {@code DIO <id> <veličina> <politika> <sjeme> <prva> <broj>} - dio za igranje</li>
+ *   <li>radnik: {@code NAPREDAK <id> <igara>} - najviše jednom u sekundi dok igra dio</li>
+ *   <li>radnik: {@code REZULTAT <id> <histogram>} - histogram rezultata dijela</li>
+ *   <li>koordinator: {@code KRAJ} - radnik završava</li>
+ * </ul>
+ * Greške se vraćaju kao {@code GRESKA <poruka>}.
+ *
+ * Pokretanje: {@code java simulacija.Radnik <port>}. Za provjeru ponovnog slanja dijelova,
+ * {@code -Dsimulacija.kvar=<vjerovatnoća>} zaustavlja proces usred dijela sa zadanom
+ * vjerovatnoćom.
+ */
+public class Radnik {
+
+    /** Vjerovatnoća namjernog pada usred dijela. */
+    private static final double KVAR = Double.parseDouble(System.getProperty("simulacija.kvar", "0"));
+
+    /**
+     * Spaja se na koordinatora i igra dijelove dok koordinator ne zatvori vezu.
+     *
+     * @param args Port koordinatora na lokalnoj adresi.
+     * @throws IOException Ako veza ne uspije.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Upotreba: java simulacija.Radnik <port>");
+            System.exit(2);
+        }
+        int port = Integer.parseInt(args[0]);
+        Socket veza;
+        try {
+            veza = new Socket(InetAddress.getLoopbackAddress(), port);
+        } catch (ConnectException e) {
+            System.err.println("Koordinator nije dostupan na portu " + port);
+            System.exit(1);
+            return;
+        }
+        try (veza;
+             BufferedReader ulaz = new BufferedReader(new InputStreamReader(veza.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter izlaz = new BufferedWriter(new OutputStreamWriter(veza.getOutputStream(), StandardCharsets.UTF_8))) {
+            veza.setTcpNoDelay(true);
+            posalji(izlaz, "RADNIK " + ProcessHandle.current().pid());
+            String linija;
+            while ((linija = ulaz.readLine()) != null) {
+                String[] dijelovi = linija.trim().split("\\s+");
+                if (dijelovi[0].equals("KRAJ")) break;
+                if (!dijelovi[0].equals("DIO")) {
+                    posalji(izlaz, "GRESKA nepoznata poruka");
+                    continue;
+                }
+                DioPosla dio;
+                try {
+                    dio = DioPosla.procitaj(dijelovi, 1);
+                } catch (IllegalArgumentException e) {
+                    posalji(izlaz, "GRESKA " + e.getMessage());
+                    continue;
+                }
+                posalji(izlaz, "REZULTAT " + dio.getId() + " " + odigraj(dio, izlaz).zapisi());
+            }
+        }
+    }
+
+    /**
+     * Igra dio i javlja napredak koordinatoru.
+     */
+    private static HistogramRezultata odigraj(DioPosla dio, BufferedWriter izlaz) throws IOException {
+        long kvarNakon = KVAR > 0 && ThreadLocalRandom.current().nextDouble() < KVAR ? dio.getBroj() / 2 : -1;
+        long[] zadnjiIspis = {System.nanoTime()};
+        try {
+            return dio.odigraj(igara -> {
+                if (igara == kvarNakon) {
+                    System.err.println("Radnik " + ProcessHandle.current().pid() + ": namjerni pad usred dijela " + dio.getId());
+                    Runtime.getRuntime().halt(3);
+                }
+                long sada = System.nanoTime();
+                if (sada - zadnjiIspis[0] >= 1_000_000_000L) {
+                    zadnjiIspis[0] = sada;
+                    try {
+                        posalji(izlaz, "NAPREDAK " + dio.getId() + " " + igara);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void posalji(BufferedWriter izlaz, String poruka) throws IOException {
+        izlaz.write(poruka);
+        izlaz.newLine();
+        izlaz.flush();
+    }
+}